@@ -0,0 +1,76 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import com.eleks.academy.pharmagator.dataproviders.dto.anc.ANCMedicineDto;
+import com.eleks.academy.pharmagator.dataproviders.dto.ds.DSMedicineDto;
+import com.eleks.academy.pharmagator.dataproviders.dto.liki24.Liki24MedicineDto;
+import com.eleks.academy.pharmagator.dataproviders.dto.rozetka.RozetkaMedicineDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProviderMappingBenchmark {
+
+    private PharmacyANCDataProvider ancDataProvider;
+
+    private PharmacyDSDataProvider dsDataProvider;
+
+    private PharmacyLiki24DataProvider liki24DataProvider;
+
+    private PharmacyRozetkaDataProvider rozetkaDataProvider;
+
+    private ANCMedicineDto ancMedicine;
+
+    private DSMedicineDto dsMedicine;
+
+    private Liki24MedicineDto liki24Medicine;
+
+    private RozetkaMedicineDto rozetkaMedicine;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        ancDataProvider = withPharmacyName(new PharmacyANCDataProvider(null, null, null, null), "pharmacy-anc");
+        dsDataProvider = withPharmacyName(new PharmacyDSDataProvider(null, null, null, null), "apteka-ds");
+        liki24DataProvider = withPharmacyName(new PharmacyLiki24DataProvider(null, null, null), "apteka-liki24");
+        rozetkaDataProvider = withPharmacyName(new PharmacyRozetkaDataProvider(null, null, null), "apteka-rozetka");
+
+        BigDecimal price = new BigDecimal("123.45");
+        ancMedicine = new ANCMedicineDto("12345", "Аспірин табл. 500 мг №10", price, "/aspirin");
+        dsMedicine = new DSMedicineDto("12345", "Аспірин табл. 500 мг №10", price, "Bayer");
+        liki24Medicine = new Liki24MedicineDto("12345", "Аспірин табл. 500 мг №10", price, "Bayer");
+        rozetkaMedicine = new RozetkaMedicineDto(12345L, "4628621.4628712", "Аспірин табл. 500 мг №10", price);
+    }
+
+    @Benchmark
+    public MedicineDto anc() {
+        return ancDataProvider.mapToMedicineDto(ancMedicine);
+    }
+
+    @Benchmark
+    public MedicineDto ds() {
+        return dsDataProvider.mapToMedicineDto(dsMedicine);
+    }
+
+    @Benchmark
+    public MedicineDto liki24() {
+        return liki24DataProvider.mapToDataProviderMedicineDto(liki24Medicine);
+    }
+
+    @Benchmark
+    public MedicineDto rozetka() {
+        return rozetkaDataProvider.mapToMedicineDto(rozetkaMedicine);
+    }
+
+    private static <T> T withPharmacyName(T dataProvider, String pharmacyName) throws ReflectiveOperationException {
+        Field field = dataProvider.getClass().getDeclaredField("pharmacyName");
+        field.setAccessible(true);
+        field.set(dataProvider, pharmacyName);
+        return dataProvider;
+    }
+
+}
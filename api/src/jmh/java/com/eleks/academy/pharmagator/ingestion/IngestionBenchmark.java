@@ -0,0 +1,96 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IngestionBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private IdResolver idResolver;
+
+    private PriceChangeDetector priceChangeDetector;
+
+    private PriceBatchWriter priceBatchWriter;
+
+    private List<MedicineDto> chunk;
+
+    private Set<String> titles;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        StubJdbcTemplate jdbcTemplate = new StubJdbcTemplate();
+        idResolver = new IdResolver(jdbcTemplate, Optional.of(new MedicineMatcher(12, 4, 0.7)));
+        priceChangeDetector = new PriceChangeDetector(jdbcTemplate);
+        priceBatchWriter = new PriceBatchWriter(jdbcTemplate, idResolver, new TransactionTemplate(new NoOpTransactionManager()), null);
+        chunk = IntStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> MedicineDto.builder()
+                        .externalId(String.valueOf(i))
+                        .title("Medicine " + i)
+                        .price(BigDecimal.valueOf(10_000 + i, 2))
+                        .pharmacyName("apteka-ds")
+                        .build())
+                .collect(Collectors.toList());
+        titles = chunk.stream().map(MedicineDto::getTitle).collect(Collectors.toSet());
+        priceBatchWriter.writeChunk(chunk);
+        chunk.forEach(priceChangeDetector::isChanged);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Map<String, Long> resolveMedicineIds() {
+        return idResolver.resolveMedicineIds(titles);
+    }
+
+    @Benchmark
+    public boolean isChanged() {
+        MedicineDto dto = chunk.get(next++ % BATCH_SIZE);
+        return priceChangeDetector.isChanged(dto);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int writeChunk() {
+        return priceBatchWriter.writeChunk(chunk);
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+
+    }
+
+}
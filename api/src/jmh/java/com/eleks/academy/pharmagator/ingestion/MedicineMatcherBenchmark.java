@@ -0,0 +1,58 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MedicineMatcherBenchmark {
+
+    private static final String[] FORMS = {"таб.", "капс.", "сироп", "р-н д/ін.", "мазь", "краплі"};
+
+    private static final String[] UNITS = {"мг", "мл", "г", "МО"};
+
+    @Param({"300000"})
+    private int medicines;
+
+    private MedicineMatcher matcher;
+
+    private String[] queries;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        matcher = new MedicineMatcher(12, 4, 0.7);
+        String[] titles = new String[medicines];
+        for (int i = 0; i < medicines; i++) {
+            titles[i] = word(random) + " " + FORMS[random.nextInt(FORMS.length)] + " "
+                    + (random.nextInt(100) * 25 + 25) + " " + UNITS[random.nextInt(UNITS.length)]
+                    + " №" + (random.nextInt(10) * 6 + 6);
+            matcher.add(titles[i], i);
+        }
+        queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            String title = titles[random.nextInt(medicines)];
+            queries[i] = i % 2 == 0 ? title.toUpperCase().replace(" ", "  ") : word(random) + " 100 мг №20";
+        }
+    }
+
+    @Benchmark
+    public Long match() {
+        return matcher.match(queries[next++ & (queries.length - 1)]);
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 5 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('а' + random.nextInt(32)));
+        }
+        return word.toString();
+    }
+
+}
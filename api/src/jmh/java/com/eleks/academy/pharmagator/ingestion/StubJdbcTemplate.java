@@ -0,0 +1,47 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+class StubJdbcTemplate extends JdbcTemplate {
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @Override
+    public void query(String sql, RowCallbackHandler rch) {
+    }
+
+    @Override
+    public void query(String sql, RowCallbackHandler rch, Object... args) {
+        if (!sql.startsWith("INSERT")) {
+            return;
+        }
+        try {
+            for (Object key : args) {
+                rch.processRow(row(ids.incrementAndGet(), (String) key));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int update(String sql, Object... args) {
+        return args.length;
+    }
+
+    private static ResultSet row(long id, String key) {
+        return (ResultSet) Proxy.newProxyInstance(StubJdbcTemplate.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, methodArgs) -> switch (method.getName()) {
+                    case "getLong" -> id;
+                    case "getString" -> key;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.eleks.academy.pharmagator.mappers;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.input.MedicineDto;
+import com.eleks.academy.pharmagator.dataproviders.dto.input.PharmacyDto;
+import com.eleks.academy.pharmagator.dataproviders.dto.input.PriceDto;
+import com.eleks.academy.pharmagator.entities.Medicine;
+import com.eleks.academy.pharmagator.entities.Pharmacy;
+import com.eleks.academy.pharmagator.entities.Price;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    private ModelMapper modelMapper;
+
+    private final MedicineMapper medicineMapper = new MedicineMapper();
+
+    private final PharmacyMapper pharmacyMapper = new PharmacyMapper();
+
+    private final PriceMapper priceMapper = new PriceMapper();
+
+    private MedicineDto medicineDto;
+
+    private PharmacyDto pharmacyDto;
+
+    private PriceDto priceDto;
+
+    private Medicine medicine;
+
+    private Price price;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        medicineDto = new MedicineDto("Аспірин табл. 500 мг №10");
+        pharmacyDto = new PharmacyDto("apteka-ds", "https://apteka-ds.com.ua/%s");
+        priceDto = new PriceDto(new BigDecimal("123.45"), "12345");
+        medicine = new Medicine(1L, medicineDto.getTitle());
+        price = new Price(1L, 1L, priceDto.getPrice(), priceDto.getExternalId(), null);
+    }
+
+    @Benchmark
+    public Medicine medicineModelMapper() {
+        return modelMapper.map(medicineDto, Medicine.class);
+    }
+
+    @Benchmark
+    public Medicine medicineMapper() {
+        return medicineMapper.toEntity(medicineDto);
+    }
+
+    @Benchmark
+    public Pharmacy pharmacyModelMapper() {
+        return modelMapper.map(pharmacyDto, Pharmacy.class);
+    }
+
+    @Benchmark
+    public Pharmacy pharmacyMapper() {
+        return pharmacyMapper.toEntity(pharmacyDto);
+    }
+
+    @Benchmark
+    public Price priceModelMapper() {
+        return modelMapper.map(priceDto, Price.class);
+    }
+
+    @Benchmark
+    public Price priceMapper() {
+        return priceMapper.toEntity(priceDto, 1L, 1L);
+    }
+
+    @Benchmark
+    public MedicineDto medicineDtoModelMapper() {
+        return modelMapper.map(medicine, MedicineDto.class);
+    }
+
+    @Benchmark
+    public MedicineDto medicineDtoMapper() {
+        return medicineMapper.toDto(medicine);
+    }
+
+    @Benchmark
+    public PriceDto priceDtoModelMapper() {
+        return modelMapper.map(price, PriceDto.class);
+    }
+
+    @Benchmark
+    public PriceDto priceDtoMapper() {
+        return priceMapper.toDto(price);
+    }
+
+}
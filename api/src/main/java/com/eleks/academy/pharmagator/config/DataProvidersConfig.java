@@ -1,14 +1,45 @@
 package com.eleks.academy.pharmagator.config;
 
+import com.eleks.academy.pharmagator.dataproviders.AdaptiveConcurrencyLimiter;
+import com.eleks.academy.pharmagator.dataproviders.CircuitBreaker;
+import com.eleks.academy.pharmagator.dataproviders.Pagination;
+import com.eleks.academy.pharmagator.dataproviders.ResilientExchangeFilter;
+import com.eleks.academy.pharmagator.replay.RecordingClientHttpConnector;
+import com.eleks.academy.pharmagator.replay.RecordingStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Configuration
-public class DataProvidersConfig {
+@RequiredArgsConstructor
+public class DataProvidersConfig implements DisposableBean {
+
+    private final MeterRegistry meterRegistry;
+
+    private final RecordingStore recordingStore;
+
+    @Value("${pharmagator.replay.record}")
+    private boolean record;
+
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
 
     @Value("${pharmagator.data-providers.apteka-ds.url}")
     private String pharmacyDSBaseUrl;
@@ -22,42 +53,140 @@ public class DataProvidersConfig {
     @Value("${pharmagator.data-providers.apteka-rozetka.url}")
     private String pharmacyRozetkaBaseUrl;
 
+    @Value("${pharmagator.data-providers.apteka-ds.page-concurrency}")
+    private int pharmacyDSPageConcurrency;
+
+    @Value("${pharmagator.data-providers.pharmacy-anc.page-concurrency}")
+    private int pharmacyANCPageConcurrency;
+
+    @Value("${pharmagator.data-providers.apteka-liki24.page-concurrency}")
+    private int pharmacyLiki24PageConcurrency;
+
+    @Value("${pharmagator.data-providers.apteka-rozetka.page-concurrency}")
+    private int pharmacyRozetkaPageConcurrency;
+
+    @Bean(name = "pharmacyDSHttpClientProfile")
+    @ConfigurationProperties("pharmagator.data-providers.apteka-ds.http-client")
+    public HttpClientProfile pharmacyDSHttpClientProfile() {
+        return new HttpClientProfile();
+    }
+
+    @Bean(name = "pharmacyANCHttpClientProfile")
+    @ConfigurationProperties("pharmagator.data-providers.pharmacy-anc.http-client")
+    public HttpClientProfile pharmacyANCHttpClientProfile() {
+        return new HttpClientProfile();
+    }
+
+    @Bean(name = "pharmacyLiki24HttpClientProfile")
+    @ConfigurationProperties("pharmagator.data-providers.apteka-liki24.http-client")
+    public HttpClientProfile pharmacyLiki24HttpClientProfile() {
+        return new HttpClientProfile();
+    }
+
+    @Bean(name = "pharmacyRozetkaHttpClientProfile")
+    @ConfigurationProperties("pharmagator.data-providers.apteka-rozetka.http-client")
+    public HttpClientProfile pharmacyRozetkaHttpClientProfile() {
+        return new HttpClientProfile();
+    }
 
     @Bean(name = "pharmacyDSWebClient")
     public WebClient pharmacyDSWebClient() {
-        return WebClient.builder()
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .baseUrl(pharmacyDSBaseUrl)
+        return webClientBuilder("apteka-ds", pharmacyDSHttpClientProfile(), pharmacyDSBaseUrl)
                 .build();
     }
 
     @Bean(name = "pharmacyANCWebClient")
     public WebClient pharmacyANCWebClient() {
-        return WebClient.builder()
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .baseUrl(pharmacyANCBaseUrl)
+        return webClientBuilder("pharmacy-anc", pharmacyANCHttpClientProfile(), pharmacyANCBaseUrl)
                 .build();
     }
 
     @Bean(name = "pharmacyLiki24WebClient")
     public WebClient pharmacyLiki24WebClient() {
-        return WebClient.builder()
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+        return webClientBuilder("apteka-liki24", pharmacyLiki24HttpClientProfile(), pharmacyLiki24BaseUrl)
                 .defaultHeader("x-lang", "uk")
-                .baseUrl(pharmacyLiki24BaseUrl)
                 .build();
     }
 
     @Bean(name = "pharmacyRozetkaWebClient")
     public WebClient pharmacyRozetkaWebClient() {
+        return webClientBuilder("apteka-rozetka", pharmacyRozetkaHttpClientProfile(), pharmacyRozetkaBaseUrl)
+                .build();
+    }
+
+    @Bean(name = "pharmacyDSPagination")
+    public Pagination pharmacyDSPagination() {
+        return new Pagination(pharmacyDSPageConcurrency, false);
+    }
+
+    @Bean(name = "pharmacyANCPagination")
+    public Pagination pharmacyANCPagination() {
+        return new Pagination(pharmacyANCPageConcurrency, false);
+    }
+
+    @Bean(name = "pharmacyLiki24Pagination")
+    public Pagination pharmacyLiki24Pagination() {
+        return new Pagination(pharmacyLiki24PageConcurrency, false);
+    }
+
+    @Bean(name = "pharmacyRozetkaPagination")
+    public Pagination pharmacyRozetkaPagination() {
+        return new Pagination(pharmacyRozetkaPageConcurrency, false);
+    }
+
+    @Override
+    public void destroy() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+
+    private WebClient.Builder webClientBuilder(String name, HttpClientProfile profile, String baseUrl) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(name)
+                .maxConnections(profile.getMaxConnections())
+                .pendingAcquireTimeout(profile.getPendingAcquireTimeout())
+                .maxIdleTime(profile.getMaxIdleTime())
+                .maxLifeTime(profile.getMaxLifeTime())
+                .evictInBackground(profile.getMaxIdleTime())
+                .metrics(true)
+                .build();
+        connectionProviders.add(connectionProvider);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .compress(profile.isCompress())
+                .protocol(profile.isHttp2() && baseUrl.startsWith("https")
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11})
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) profile.getConnectTimeout().toMillis())
+                .responseTimeout(profile.getResponseTimeout());
+
+        HttpClientProfile.ConcurrencyLimit concurrencyLimit = profile.getConcurrencyLimit();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(name,
+                concurrencyLimit.getInitialLimit(), concurrencyLimit.getMinLimit(), concurrencyLimit.getMaxLimit(),
+                concurrencyLimit.getLatencyThreshold(), concurrencyLimit.getBackoffRatio())
+                .bindTo(meterRegistry);
+
+        HttpClientProfile.Retry retry = profile.getRetry();
+        HttpClientProfile.Circuit circuit = profile.getCircuitBreaker();
+        ResilientExchangeFilter resilientExchangeFilter = new ResilientExchangeFilter(name,
+                new CircuitBreaker(name, circuit.getFailureThreshold(), circuit.getOpenDuration(), Clock.systemUTC()),
+                profile.getRequestTimeout(), retry.getMaxAttempts(), retry.getMinBackoff(), retry.getMaxBackoff(),
+                retry.getJitter(), meterRegistry);
+
+        ClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+        if (record) {
+            connector = new RecordingClientHttpConnector(connector, name, recordingStore);
+        }
+
         return WebClient.builder()
+                .clientConnector(connector)
+                .filter(resilientExchangeFilter)
+                .filter(limiter.filter())
+                .filter(resilientExchangeFilter.deadline())
+                .codecs(codecs -> codecs.defaultCodecs()
+                        .maxInMemorySize((int) profile.getMaxInMemorySize().toBytes()))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .baseUrl(pharmacyRozetkaBaseUrl)
-                .build();
+                .baseUrl(baseUrl);
     }
 
 }
@@ -0,0 +1,74 @@
+package com.eleks.academy.pharmagator.config;
+
+import lombok.Data;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+public class HttpClientProfile {
+
+    private int maxConnections = 16;
+
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    private boolean http2 = true;
+
+    private boolean compress = true;
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    private Duration responseTimeout = Duration.ofSeconds(30);
+
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(2);
+
+    private Duration requestTimeout = Duration.ofSeconds(60);
+
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    private Retry retry = new Retry();
+
+    private Circuit circuitBreaker = new Circuit();
+
+    @Data
+    public static class ConcurrencyLimit {
+
+        private int initialLimit = 2;
+
+        private int minLimit = 1;
+
+        private int maxLimit = 16;
+
+        private Duration latencyThreshold = Duration.ofSeconds(5);
+
+        private double backoffRatio = 0.5;
+
+    }
+
+    @Data
+    public static class Retry {
+
+        private int maxAttempts = 3;
+
+        private Duration minBackoff = Duration.ofMillis(500);
+
+        private Duration maxBackoff = Duration.ofSeconds(10);
+
+        private double jitter = 0.5;
+
+    }
+
+    @Data
+    public static class Circuit {
+
+        private int failureThreshold = 5;
+
+        private Duration openDuration = Duration.ofMinutes(1);
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.eleks.academy.pharmagator.config;
+
+import com.eleks.academy.pharmagator.ingestion.MedicineMatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "pharmagator.ingestion.matching.enabled", havingValue = "true")
+public class MedicineMatchingConfig {
+
+    @Value("${pharmagator.ingestion.matching.bands}")
+    private int bands;
+
+    @Value("${pharmagator.ingestion.matching.rows}")
+    private int rows;
+
+    @Value("${pharmagator.ingestion.matching.similarity-threshold}")
+    private double similarityThreshold;
+
+    @Bean
+    public MedicineMatcher medicineMatcher() {
+        return new MedicineMatcher(bands, rows, similarityThreshold);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.eleks.academy.pharmagator.config;
+
+import com.eleks.academy.pharmagator.replay.RecordingStore;
+import com.eleks.academy.pharmagator.replay.ReplayServer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Random;
+
+@Configuration
+@ConditionalOnProperty(name = "pharmagator.replay.server.enabled", havingValue = "true")
+public class ReplayConfig {
+
+    @Value("${pharmagator.replay.server.port}")
+    private int port;
+
+    @Value("${pharmagator.replay.server.latency}")
+    private Duration latency;
+
+    @Value("${pharmagator.replay.server.error-rate}")
+    private double errorRate;
+
+    @Value("${pharmagator.replay.server.error-status}")
+    private int errorStatus;
+
+    @Value("${pharmagator.replay.server.seed}")
+    private long seed;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReplayServer replayServer(RecordingStore recordingStore) {
+        return new ReplayServer(recordingStore, port, latency, errorRate, errorStatus, new Random(seed));
+    }
+
+}
@@ -1,32 +1,245 @@
 package com.eleks.academy.pharmagator.controllers;
 
+import com.eleks.academy.pharmagator.services.ExportArtifact;
+import com.eleks.academy.pharmagator.services.ExportArtifacts;
+import com.eleks.academy.pharmagator.services.ExportFormat;
+import com.eleks.academy.pharmagator.services.ExportJob;
+import com.eleks.academy.pharmagator.services.ExportJobs;
 import com.eleks.academy.pharmagator.services.ExportService;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("/export")
 public class ExportController {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final ExportService exportService;
+    private final ExportArtifacts exportArtifacts;
+
+    private final ExportJobs exportJobs;
 
     @SneakyThrows
     @GetMapping
-    public void export(HttpServletResponse response) {
-        XSSFWorkbook workbook = exportService.getExportData();
-        ServletOutputStream outputStream = response.getOutputStream();
+    public void export(@RequestParam(required = false) String format,
+                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                       HttpServletRequest request,
+                       HttpServletResponse response) {
+        Optional<ExportFormat> exportFormat = resolveFormat(format, accept);
+        if (exportFormat.isEmpty()) {
+            response.sendError(HttpStatus.NOT_ACCEPTABLE.value());
+            return;
+        }
+        ExportFormat resolved = exportFormat.get();
+        boolean gzip = resolved.isCompressible() && acceptsGzip(acceptEncoding);
+
+        writeContentHeaders(resolved, response);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+
+        Optional<ExportArtifact> artifact = exportArtifacts.find(resolved, gzip);
+        if (artifact.isPresent()) {
+            serve(artifact.get(), gzip, request, response);
+        } else if (gzip) {
+            response.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try (OutputStream outputStream = new GZIPOutputStream(response.getOutputStream(), 64 * 1024)) {
+                exportService.export(resolved, outputStream);
+            }
+        } else {
+            exportService.export(resolved, response.getOutputStream());
+        }
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<ExportJob> submitJob(@RequestParam(required = false) String format) {
+        Optional<ExportFormat> exportFormat = format == null
+                ? Optional.of(ExportFormat.XLSX)
+                : ExportFormat.fromExtension(format);
+        if (exportFormat.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            ExportJob job = exportJobs.submit(exportFormat.get());
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{id}").buildAndExpand(job.id()).toUri())
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "60")
+                    .build();
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ExportJob> getJob(@PathVariable UUID id) {
+        return exportJobs.find(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @SneakyThrows
+    @GetMapping("/jobs/{id}/download")
+    public void downloadJob(@PathVariable UUID id, HttpServletRequest request, HttpServletResponse response) {
+        Optional<ExportJob> job = exportJobs.find(id);
+        if (job.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        switch (job.get().status()) {
+            case QUEUED, RUNNING -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+                response.sendError(HttpStatus.CONFLICT.value());
+                return;
+            }
+            case FAILED -> {
+                response.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Export failed: " + job.get().error());
+                return;
+            }
+        }
+        Optional<ExportArtifact> result = exportJobs.result(id);
+        if (result.isEmpty()) {
+            response.sendError(HttpStatus.GONE.value());
+            return;
+        }
+        writeContentHeaders(job.get().format(), response);
+        serve(result.get(), false, request, response);
+    }
+
+    private static void writeContentHeaders(ExportFormat format, HttpServletResponse response) {
+        response.setContentType(format.getMediaType().toString());
+        response.addHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + format.getFileName());
+    }
+
+    private void serve(ExportArtifact artifact, boolean gzip, HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        if (new ServletWebRequest(request, response).checkNotModified(artifact.eTag(), artifact.lastModified().toEpochMilli())) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
 
-        response.addHeader("Content-Disposition", "attachment; filename=export.xlsx");
+        long length = artifact.length();
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && isRangeApplicable(request, artifact)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || start > end) {
+                        throw new IllegalArgumentException("Range " + range + " is outside of " + length + " bytes");
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+        if (gzip) {
+            response.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLengthLong(end - start + 1);
 
-        workbook.write(outputStream);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, artifact.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(artifact.path(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            for (long position = start; position <= end; ) {
+                position += channel.transferTo(position, end + 1 - position, target);
+            }
+        }
+    }
+
+    private static boolean isRangeApplicable(HttpServletRequest request, ExportArtifact artifact) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null || ifRange.equals(artifact.eTag())) {
+            return true;
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == artifact.lastModified().getEpochSecond();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String[] parameter = parts[i].split("=", 2);
+                if (parameter.length == 2 && parameter[0].trim().equalsIgnoreCase("q")) {
+                    try {
+                        quality = Double.parseDouble(parameter[1].trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : wildcard;
+        return quality != null && quality > 0;
+    }
 
-        workbook.close();
+    private static Optional<ExportFormat> resolveFormat(String format, String accept) {
+        if (format != null) {
+            return ExportFormat.fromExtension(format);
+        }
+        if (accept == null || accept.isBlank()) {
+            return Optional.of(ExportFormat.XLSX);
+        }
+        return ExportFormat.negotiate(MediaType.parseMediaTypes(accept));
     }
 }
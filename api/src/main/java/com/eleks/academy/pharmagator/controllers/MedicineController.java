@@ -1,15 +1,17 @@
 package com.eleks.academy.pharmagator.controllers;
 
 import com.eleks.academy.pharmagator.dataproviders.dto.input.MedicineDto;
+import com.eleks.academy.pharmagator.mappers.MedicineMapper;
 import com.eleks.academy.pharmagator.services.MedicineService;
+import com.eleks.academy.pharmagator.services.MedicineSort;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/medicines")
@@ -17,25 +19,39 @@ import java.util.stream.Collectors;
 public class MedicineController {
 
     private final MedicineService medicineService;
-    private final ModelMapper modelMapper;
+    private final MedicineMapper medicineMapper;
+
+    @Value("${pharmagator.pagination.max-size}")
+    private int maxPageSize;
 
     @GetMapping
-    public List<MedicineDto> getAll() {
-        return medicineService.findAll().stream()
-                .map(medicine -> modelMapper.map(medicine, MedicineDto.class))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<MedicineDto>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "${pharmagator.pagination.default-size}") int size) {
+
+        Optional<MedicineSort> order = MedicineSort.fromParameter(sort);
+        if (order.isEmpty() || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return KeysetResponses.ok(
+                    medicineService.findPage(order.get(), cursor, Math.min(size, maxPageSize)), medicineMapper::toDto);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id:[\\d]+}")
     public ResponseEntity<MedicineDto> getById(@PathVariable Long id) {
         return medicineService.findById(id)
-                .map(medicine -> ResponseEntity.ok(modelMapper.map(medicine, MedicineDto.class)))
+                .map(medicine -> ResponseEntity.ok(medicineMapper.toDto(medicine)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public MedicineDto create(@Valid @RequestBody MedicineDto medicineDto) {
-        return modelMapper.map(medicineService.save(medicineDto), MedicineDto.class);
+        return medicineMapper.toDto(medicineService.save(medicineDto));
     }
 
     @PutMapping("/{id:[\\d]+}")
@@ -44,7 +60,7 @@ public class MedicineController {
             @Valid @RequestBody MedicineDto medicineDto) {
 
         return medicineService.update(id, medicineDto)
-                .map(medicine -> ResponseEntity.ok(modelMapper.map(medicine, MedicineDto.class)))
+                .map(medicine -> ResponseEntity.ok(medicineMapper.toDto(medicine)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -1,15 +1,17 @@
 package com.eleks.academy.pharmagator.controllers;
 
 import com.eleks.academy.pharmagator.dataproviders.dto.input.PharmacyDto;
+import com.eleks.academy.pharmagator.mappers.PharmacyMapper;
 import com.eleks.academy.pharmagator.services.PharmacyService;
+import com.eleks.academy.pharmagator.services.PharmacySort;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequiredArgsConstructor
@@ -17,25 +19,39 @@ import java.util.stream.Collectors;
 public class PharmacyController {
 
     private final PharmacyService pharmacyService;
-    private final ModelMapper modelMapper;
+    private final PharmacyMapper pharmacyMapper;
+
+    @Value("${pharmagator.pagination.max-size}")
+    private int maxPageSize;
 
     @GetMapping
-    public List<PharmacyDto> getAll() {
-        return pharmacyService.findAll().stream()
-                .map(pharmacy -> modelMapper.map(pharmacy, PharmacyDto.class))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<PharmacyDto>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "${pharmagator.pagination.default-size}") int size) {
+
+        Optional<PharmacySort> order = PharmacySort.fromParameter(sort);
+        if (order.isEmpty() || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return KeysetResponses.ok(
+                    pharmacyService.findPage(order.get(), cursor, Math.min(size, maxPageSize)), pharmacyMapper::toDto);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id:[\\d]+}")
     public ResponseEntity<PharmacyDto> getById(@PathVariable Long id) {
         return pharmacyService.findById(id)
-                .map(pharmacy -> ResponseEntity.ok(modelMapper.map(pharmacy, PharmacyDto.class)))
+                .map(pharmacy -> ResponseEntity.ok(pharmacyMapper.toDto(pharmacy)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public PharmacyDto create(@Valid @RequestBody PharmacyDto pharmacyDto) {
-        return modelMapper.map(pharmacyService.save(pharmacyDto), PharmacyDto.class);
+        return pharmacyMapper.toDto(pharmacyService.save(pharmacyDto));
     }
 
     @PutMapping("/{id:[\\d]+}")
@@ -44,7 +60,7 @@ public class PharmacyController {
             @Valid @RequestBody PharmacyDto pharmacyDto) {
 
         return pharmacyService.update(id, pharmacyDto)
-                .map(pharmacy -> ResponseEntity.ok(modelMapper.map(pharmacy, PharmacyDto.class)))
+                .map(pharmacy -> ResponseEntity.ok(pharmacyMapper.toDto(pharmacy)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -1,15 +1,17 @@
 package com.eleks.academy.pharmagator.controllers;
 
 import com.eleks.academy.pharmagator.dataproviders.dto.input.PriceDto;
+import com.eleks.academy.pharmagator.mappers.PriceMapper;
 import com.eleks.academy.pharmagator.services.PriceService;
+import com.eleks.academy.pharmagator.services.PriceSort;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/prices")
@@ -17,13 +19,27 @@ import java.util.stream.Collectors;
 public class PriceController {
 
     private final PriceService priceService;
-    private final ModelMapper modelMapper;
+    private final PriceMapper priceMapper;
+
+    @Value("${pharmagator.pagination.max-size}")
+    private int maxPageSize;
 
     @GetMapping
-    public List<PriceDto> getAll() {
-        return priceService.findAll().stream()
-                .map(price -> modelMapper.map(price, PriceDto.class))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<PriceDto>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "${pharmagator.pagination.default-size}") int size) {
+
+        Optional<PriceSort> order = PriceSort.fromParameter(sort);
+        if (order.isEmpty() || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return KeysetResponses.ok(
+                    priceService.findPage(order.get(), cursor, Math.min(size, maxPageSize)), priceMapper::toDto);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/pharmacyId/{pharmacyId:[\\d]+}/medicineId/{medicineId:[\\d]+}")
@@ -32,7 +48,7 @@ public class PriceController {
             @PathVariable Long medicineId) {
 
         return priceService.findById(pharmacyId, medicineId)
-                .map(price -> ResponseEntity.ok(modelMapper.map(price, PriceDto.class)))
+                .map(price -> ResponseEntity.ok(priceMapper.toDto(price)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -43,7 +59,7 @@ public class PriceController {
             @PathVariable Long medicineId) {
 
         return priceService.update(pharmacyId, medicineId, priceDto)
-                .map(price -> ResponseEntity.ok(modelMapper.map(price, PriceDto.class)))
+                .map(price -> ResponseEntity.ok(priceMapper.toDto(price)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -0,0 +1,39 @@
+package com.eleks.academy.pharmagator.controllers;
+
+import com.eleks.academy.pharmagator.projections.PriceHistoryPoint;
+import com.eleks.academy.pharmagator.services.PriceHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/price-history")
+public class PriceHistoryController {
+
+    private final PriceHistoryService priceHistoryService;
+
+    @Value("${pharmagator.price-history.default-range}")
+    private Duration defaultRange;
+
+    @GetMapping("/medicineId/{medicineId:[\\d]+}")
+    public ResponseEntity<List<PriceHistoryPoint>> getByMedicineId(
+            @PathVariable Long medicineId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+
+        Instant end = to == null ? Instant.now() : to;
+        Instant start = from == null ? end.minus(defaultRange) : from;
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(priceHistoryService.findByMedicineId(medicineId, start, end));
+    }
+
+}
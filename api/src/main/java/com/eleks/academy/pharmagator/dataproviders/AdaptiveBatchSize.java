@@ -0,0 +1,58 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AdaptiveBatchSize {
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final Duration targetLatency;
+
+    private final AtomicInteger size;
+
+    public AdaptiveBatchSize(int initialSize, int minSize, int maxSize, Duration targetLatency) {
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetLatency = targetLatency;
+        this.size = new AtomicInteger(Math.max(minSize, Math.min(maxSize, initialSize)));
+    }
+
+    public int current() {
+        return size.get();
+    }
+
+    public <T> Flux<List<T>> buffer(Flux<T> items) {
+        return Flux.defer(() -> {
+            AtomicInteger count = new AtomicInteger();
+            return items.bufferUntil(item -> {
+                if (count.incrementAndGet() >= size.get()) {
+                    count.set(0);
+                    return true;
+                }
+                return false;
+            });
+        });
+    }
+
+    public <R> Flux<R> measure(Flux<R> call) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return call.doOnComplete(() -> record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    public void record(Duration latency) {
+        if (latency.compareTo(targetLatency) <= 0) {
+            size.updateAndGet(current -> Math.min(maxSize, current + Math.max(1, current / 4)));
+        } else {
+            size.updateAndGet(current -> Math.max(minSize, current / 2));
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final Duration latencyThreshold;
+
+    private final double backoffRatio;
+
+    private final Deque<MonoSink<Void>> waiting = new ArrayDeque<>();
+
+    private double limit;
+
+    private int inFlight;
+
+    private boolean backedOff;
+
+    private long lastBackoff;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public AdaptiveConcurrencyLimiter bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("pharmagator.data-provider.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("provider", name)
+                .register(meterRegistry);
+        Gauge.builder("pharmagator.data-provider.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("provider", name)
+                .register(meterRegistry);
+        return this;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> acquire().then(Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean();
+            Consumer<Boolean> releaseOnce = overloaded -> {
+                if (released.compareAndSet(false, true)) {
+                    release(elapsedSince(start), overloaded);
+                }
+            };
+            return next.exchange(request)
+                    .map(response -> {
+                        boolean overloaded = isOverloaded(response.rawStatusCode());
+                        return response.mutate()
+                                .body(body -> body.doFinally(signal ->
+                                        releaseOnce.accept(overloaded || signal == SignalType.ON_ERROR)))
+                                .build();
+                    })
+                    .doOnError(e -> releaseOnce.accept(true))
+                    .doOnCancel(() -> releaseOnce.accept(false));
+        }));
+    }
+
+    public Mono<Void> acquire() {
+        return Mono.create(sink -> {
+            boolean acquired;
+            synchronized (this) {
+                acquired = inFlight < (int) limit;
+                if (acquired) {
+                    inFlight++;
+                } else {
+                    waiting.add(sink);
+                }
+            }
+            if (acquired) {
+                sink.success();
+            } else {
+                sink.onCancel(() -> cancel(sink));
+            }
+        });
+    }
+
+    public void release(Duration latency, boolean overloaded) {
+        List<MonoSink<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            int previous = (int) limit;
+            long now = System.nanoTime();
+            if (overloaded || latency.compareTo(latencyThreshold) > 0) {
+                if (!backedOff || now - latency.toNanos() - lastBackoff > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    backedOff = true;
+                    lastBackoff = now;
+                }
+            } else if (inFlight + 1 >= (int) limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            if ((int) limit != previous) {
+                log.debug("{} concurrency limit {} -> {}", name, previous, (int) limit);
+            }
+            while (inFlight < (int) limit && !waiting.isEmpty()) {
+                inFlight++;
+                granted.add(waiting.poll());
+            }
+        }
+        granted.forEach(MonoSink::success);
+    }
+
+    private void cancel(MonoSink<Void> sink) {
+        synchronized (this) {
+            if (waiting.remove(sink)) {
+                return;
+            }
+        }
+        release(Duration.ZERO, false);
+    }
+
+    private static boolean isOverloaded(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+    }
+
+    private static Duration elapsedSince(long start) {
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+}
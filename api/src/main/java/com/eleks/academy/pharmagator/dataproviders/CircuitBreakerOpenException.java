@@ -0,0 +1,9 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String name) {
+        super("Circuit breaker for " + name + " is open");
+    }
+
+}
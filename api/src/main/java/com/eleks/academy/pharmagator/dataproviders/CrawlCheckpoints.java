@@ -0,0 +1,52 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import com.eleks.academy.pharmagator.entities.CrawlCheckpoint;
+import com.eleks.academy.pharmagator.repositories.CrawlCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CrawlCheckpoints {
+
+    private final CrawlCheckpointRepository crawlCheckpointRepository;
+
+    private final Set<String> crawledProviders = ConcurrentHashMap.newKeySet();
+
+    @Value("${pharmagator.crawl.checkpoint-staleness}")
+    private Duration checkpointStaleness;
+
+    public CrawlProgress resume(String provider) {
+        List<CrawlCheckpoint> checkpoints = crawlCheckpointRepository.findAllByProvider(provider);
+        boolean firstCrawl = crawledProviders.add(provider);
+        Instant latest = checkpoints.stream()
+                .map(CrawlCheckpoint::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(Instant.MIN);
+        if (!checkpoints.isEmpty() && !firstCrawl) {
+            log.info("Discarding {} crawl checkpoints of {} left by a crawl of this instance", checkpoints.size(), provider);
+            crawlCheckpointRepository.deleteAllByProvider(provider);
+            checkpoints = List.of();
+        } else if (!checkpoints.isEmpty() && latest.isBefore(Instant.now().minus(checkpointStaleness))) {
+            log.info("Discarding {} stale crawl checkpoints of {}", checkpoints.size(), provider);
+            crawlCheckpointRepository.deleteAllByProvider(provider);
+            checkpoints = List.of();
+        } else if (!checkpoints.isEmpty()) {
+            log.info("Resuming {} from {} crawl checkpoints", provider, checkpoints.size());
+        }
+        return new CrawlProgress(provider, checkpoints, crawlCheckpointRepository);
+    }
+
+}
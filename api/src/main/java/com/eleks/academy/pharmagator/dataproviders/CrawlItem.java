@@ -0,0 +1,24 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+
+public sealed interface CrawlItem {
+
+    static CrawlItem medicine(MedicineDto dto) {
+        return new Medicine(dto);
+    }
+
+    static CrawlItem checkpoint(Runnable commit) {
+        return new Checkpoint(commit);
+    }
+
+    record Medicine(MedicineDto dto) implements CrawlItem {
+    }
+
+    /**
+     * Progress that becomes durable once every item emitted before it has been stored.
+     */
+    record Checkpoint(Runnable commit) implements CrawlItem {
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import com.eleks.academy.pharmagator.entities.CrawlCheckpoint;
+import com.eleks.academy.pharmagator.repositories.CrawlCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+@Slf4j
+public class CrawlProgress {
+
+    private final String provider;
+
+    private final CrawlCheckpointRepository crawlCheckpointRepository;
+
+    private final Map<String, CategoryProgress> categories = new ConcurrentHashMap<>();
+
+    CrawlProgress(String provider, List<CrawlCheckpoint> checkpoints,
+                  CrawlCheckpointRepository crawlCheckpointRepository) {
+        this.provider = provider;
+        this.crawlCheckpointRepository = crawlCheckpointRepository;
+        checkpoints.forEach(checkpoint -> categories.put(checkpoint.getCategory(), new CategoryProgress(checkpoint)));
+    }
+
+    public boolean isCompleted(String category) {
+        CategoryProgress progress = categories.get(category);
+        return progress != null && progress.checkpoint.isCompleted();
+    }
+
+    public long nextPage(String category, long firstPage) {
+        CategoryProgress progress = category(category);
+        synchronized (progress) {
+            progress.firstPage = firstPage;
+            Long completedPage = progress.checkpoint.getCompletedPage();
+            return completedPage == null ? firstPage : completedPage + 1;
+        }
+    }
+
+    public Flux<CrawlItem> crawl(String category, long firstPage, Pagination pagination, PageFetcher pageFetcher) {
+        return Flux.defer(() -> {
+            if (isCompleted(category)) {
+                return Flux.empty();
+            }
+            CategoryProgress progress = category(category);
+            long nextPage = nextPage(category, firstPage);
+            boolean resumed = progress.checkpoint.getLastPage() != null;
+            Flux<CrawlItem> first = resumed
+                    ? Flux.empty()
+                    : track(category, nextPage, pageFetcher.fetch(nextPage, progress.checkpoint::setLastPage));
+            long remainingPage = resumed ? nextPage : nextPage + 1;
+            return first
+                    .concatWith(Flux.defer(() -> {
+                        Long lastPage = progress.checkpoint.getLastPage();
+                        return lastPage == null
+                                ? Flux.empty()
+                                : pagination.fetch(remainingPage, lastPage,
+                                page -> track(category, page, pageFetcher.fetch(page, ignored -> {
+                                })));
+                    }))
+                    .concatWith(Mono.fromSupplier(() -> CrawlItem.checkpoint(() -> complete(category))));
+        });
+    }
+
+    public Flux<CrawlItem> track(String category, long page, Flux<MedicineDto> pageItems) {
+        return track(category, List.of(page), pageItems);
+    }
+
+    public Flux<CrawlItem> track(String category, Collection<Long> pages, Flux<MedicineDto> pageItems) {
+        Flux<CrawlItem> items = pageItems.map(CrawlItem::medicine);
+        return pages.isEmpty()
+                ? items
+                : items.concatWith(Mono.fromSupplier(() ->
+                CrawlItem.checkpoint(() -> pages.forEach(page -> completePage(category, page)))));
+    }
+
+    public void completePage(String category, long page) {
+        CategoryProgress progress = category(category);
+        synchronized (progress) {
+            Long completedPage = progress.checkpoint.getCompletedPage();
+            long next = completedPage == null ? progress.firstPage : completedPage + 1;
+            progress.pending.add(page);
+            boolean advanced = false;
+            while (progress.pending.remove(next)) {
+                progress.checkpoint.setCompletedPage(next++);
+                advanced = true;
+            }
+            if (advanced) {
+                save(progress.checkpoint);
+            }
+        }
+    }
+
+    public void complete(String category) {
+        CategoryProgress progress = category(category);
+        synchronized (progress) {
+            progress.checkpoint.setCompleted(true);
+            save(progress.checkpoint);
+        }
+    }
+
+    public Mono<CrawlItem> finish() {
+        return Mono.fromSupplier(() -> CrawlItem.checkpoint(() -> {
+            try {
+                crawlCheckpointRepository.deleteAllByProvider(provider);
+            } catch (RuntimeException e) {
+                log.warn("Failed to clear crawl checkpoints of {}", provider, e);
+            }
+            categories.clear();
+        }));
+    }
+
+    private CategoryProgress category(String category) {
+        return categories.computeIfAbsent(category, key -> new CategoryProgress(CrawlCheckpoint.builder()
+                .provider(provider)
+                .category(key)
+                .build()));
+    }
+
+    private void save(CrawlCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(Instant.now());
+        try {
+            crawlCheckpointRepository.save(checkpoint);
+        } catch (RuntimeException e) {
+            log.warn("Failed to save crawl checkpoint of {} {}", provider, checkpoint.getCategory(), e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface PageFetcher {
+
+        Flux<MedicineDto> fetch(long page, LongConsumer lastPageConsumer);
+
+    }
+
+    private static class CategoryProgress {
+
+        private final CrawlCheckpoint checkpoint;
+
+        private final NavigableSet<Long> pending = new TreeSet<>();
+
+        private long firstPage;
+
+        CategoryProgress(CrawlCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+    }
+
+}
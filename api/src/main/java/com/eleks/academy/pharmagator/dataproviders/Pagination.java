@@ -0,0 +1,49 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.LongStream;
+
+@RequiredArgsConstructor
+public class Pagination {
+
+    private final int concurrency;
+
+    private final boolean ordered;
+
+    public static long pageCount(Long total, long pageSize) {
+        if (total == null || total <= 0) {
+            return 0;
+        }
+        return (total + pageSize - 1) / pageSize;
+    }
+
+    public <P> Flux<P> fetch(long firstPage, long lastPage, LongFunction<? extends Publisher<P>> pageFetcher) {
+        Flux<Long> pages = Flux.fromStream(() -> LongStream.rangeClosed(firstPage, lastPage).boxed());
+        return ordered
+                ? pages.flatMapSequential(pageFetcher::apply, concurrency)
+                : pages.flatMap(pageFetcher::apply, concurrency);
+    }
+
+    public <P> Flux<P> fetch(long firstPage, LongFunction<Mono<P>> pageFetcher, ToLongFunction<P> lastPage) {
+        return pageFetcher.apply(firstPage)
+                .flatMapMany(first -> Flux.concat(
+                        Mono.just(first),
+                        fetch(firstPage + 1, lastPage.applyAsLong(first), pageFetcher)));
+    }
+
+    public <P> Flux<P> fetchWhile(long firstPage, LongFunction<Mono<P>> pageFetcher, Predicate<P> hasNext) {
+        return Flux.defer(() -> {
+            long[] nextPage = {firstPage};
+            return pageFetcher.apply(nextPage[0])
+                    .expand(page -> hasNext.test(page) ? pageFetcher.apply(++nextPage[0]) : Mono.empty());
+        });
+    }
+
+}
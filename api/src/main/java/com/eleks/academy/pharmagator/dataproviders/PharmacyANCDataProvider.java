@@ -2,30 +2,34 @@ package com.eleks.academy.pharmagator.dataproviders;
 
 import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
 import com.eleks.academy.pharmagator.dataproviders.dto.anc.ANCMedicineDto;
-import com.eleks.academy.pharmagator.dataproviders.dto.anc.ANCMedicinesResponse;
 import com.eleks.academy.pharmagator.dataproviders.dto.anc.ANCSubcategoryDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.function.LongConsumer;
 
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.LongStream;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Qualifier("pharmacyANCDataProvider")
-public class PharmacyANCDataProvider implements DataProvider {
+public class PharmacyANCDataProvider implements ReactiveDataProvider {
 
     @Qualifier("pharmacyANCWebClient")
     private final WebClient ancClient;
 
+    @Qualifier("pharmacyANCPagination")
+    private final Pagination pagination;
+
+    private final StreamingPageDecoder pageDecoder;
+
+    private final CrawlCheckpoints crawlCheckpoints;
+
     @Value("${pharmagator.data-providers.pharmacy-anc.category-fetch-url}")
     private String categoriesFetchUrl;
 
@@ -36,47 +40,42 @@ public class PharmacyANCDataProvider implements DataProvider {
     private String pharmacyName;
 
     @Override
-    public Stream<MedicineDto> loadData() {
-        return this.fetchCategories().stream()
-                .map(ANCSubcategoryDto::getSubcategories)
-                .flatMap(Collection::stream)
-                .map(ANCSubcategoryDto::getLink)
-                .flatMap(this::fetchProductsByCategory);
+    public Flux<CrawlItem> loadFlux() {
+        return Flux.defer(() -> {
+            CrawlProgress progress = crawlCheckpoints.resume(pharmacyName);
+            return this.fetchCategories()
+                    .flatMapIterable(ANCSubcategoryDto::getSubcategories)
+                    .map(ANCSubcategoryDto::getLink)
+                    .concatMap(category -> fetchProductsByCategory(progress, category))
+                    .concatWith(progress.finish());
+        });
     }
 
-    private List<ANCSubcategoryDto> fetchCategories() {
+    private Flux<ANCSubcategoryDto> fetchCategories() {
         return this.ancClient.get().uri(categoriesFetchUrl + "/medikamenty-1")
                 .retrieve().bodyToMono(new ParameterizedTypeReference<ANCSubcategoryDto>() {
-                }).map(ANCSubcategoryDto::getSubcategories).block();
+                }).flatMapIterable(ANCSubcategoryDto::getSubcategories);
     }
 
-    private Stream<MedicineDto> fetchProductsByCategory(String category) {
-        ANCMedicinesResponse firstANCMedicinesResponse = getMedicineResponseByCategoryAndPage(category, 0L);
-
-        return LongStream
-                .range(1, firstANCMedicinesResponse.getTotal() / pageSize +
-                        (firstANCMedicinesResponse.getTotal() % pageSize) != 0 ? 1 : 0)
-                .mapToObj(page -> getMedicineResponseByCategoryAndPage(category, page))
-                .collect(Collectors.toCollection(() -> Arrays.asList(firstANCMedicinesResponse)))
-                .stream()
-                .map(ANCMedicinesResponse::getProducts)
-                .flatMap(Collection::stream)
-                .map(this::mapToMedicineDto);
+    private Flux<CrawlItem> fetchProductsByCategory(CrawlProgress progress, String category) {
+        return progress.crawl(category, 0L, pagination, (page, lastPage) -> fetchProductsPage(category, page,
+                total -> lastPage.accept(Pagination.pageCount(total, pageSize) - 1)));
     }
 
-    private ANCMedicinesResponse getMedicineResponseByCategoryAndPage(String category, Long page) {
-        return this.ancClient.get()
+    private Flux<MedicineDto> fetchProductsPage(String category, Long page, LongConsumer totalConsumer) {
+        Flux<DataBuffer> body = this.ancClient.get()
                 .uri(builder -> builder
                         .path(categoriesFetchUrl + "/" + category)
                         .queryParam("p", page)
                         .queryParam("s", pageSize)
                         .build())
                 .retrieve()
-                .bodyToMono(ANCMedicinesResponse.class)
-                .block();
+                .bodyToFlux(DataBuffer.class);
+        return pageDecoder.decode(body, "products", ANCMedicineDto.class, "total", totalConsumer)
+                .map(this::mapToMedicineDto);
     }
 
-    private MedicineDto mapToMedicineDto(ANCMedicineDto ancMedicineDTO) {
+    MedicineDto mapToMedicineDto(ANCMedicineDto ancMedicineDTO) {
         return MedicineDto.builder()
                 .externalId(ancMedicineDTO.getId())
                 .price(ancMedicineDTO.getPrice())
@@ -86,4 +85,3 @@ public class PharmacyANCDataProvider implements DataProvider {
     }
 
 }
-
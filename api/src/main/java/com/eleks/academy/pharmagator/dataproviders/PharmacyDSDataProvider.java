@@ -3,29 +3,37 @@ package com.eleks.academy.pharmagator.dataproviders;
 import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
 import com.eleks.academy.pharmagator.dataproviders.dto.ds.CategoryDto;
 import com.eleks.academy.pharmagator.dataproviders.dto.ds.DSMedicineDto;
-import com.eleks.academy.pharmagator.dataproviders.dto.ds.DSMedicinesResponse;
 import com.eleks.academy.pharmagator.dataproviders.dto.ds.FilterRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.function.LongConsumer;
 
 @Service
 @RequiredArgsConstructor
 @Qualifier("pharmacyDSDataProvider")
-public class PharmacyDSDataProvider implements DataProvider {
+public class PharmacyDSDataProvider implements ReactiveDataProvider {
+
+    private static final long PAGE_SIZE = 100L;
 
     @Qualifier("pharmacyDSWebClient")
     private final WebClient dsClient;
 
+    @Qualifier("pharmacyDSPagination")
+    private final Pagination pagination;
+
+    private final StreamingPageDecoder pageDecoder;
+
+    private final CrawlCheckpoints crawlCheckpoints;
+
     @Value("${pharmagator.data-providers.apteka-ds.category-fetch-url}")
     private String categoriesFetchUrl;
 
@@ -36,67 +44,45 @@ public class PharmacyDSDataProvider implements DataProvider {
     private String pharmacyName;
 
     @Override
-    public Stream<MedicineDto> loadData() {
-        return this.fetchCategories().stream()
-                .filter(categoryDto -> categoryDto.getName().equals("Медикаменти"))
-                .map(CategoryDto::getChildren)
-                .flatMap(Collection::stream)
-                .map(CategoryDto::getSlug)
-                .flatMap(this::fetchMedicinesByCategory);
+    public Flux<CrawlItem> loadFlux() {
+        return Flux.defer(() -> {
+            CrawlProgress progress = crawlCheckpoints.resume(pharmacyName);
+            return this.fetchCategories()
+                    .filter(categoryDto -> categoryDto.getName().equals("Медикаменти"))
+                    .flatMapIterable(CategoryDto::getChildren)
+                    .map(CategoryDto::getSlug)
+                    .concatMap(category -> fetchMedicinesByCategory(progress, category))
+                    .concatWith(progress.finish());
+        });
     }
 
-    private List<CategoryDto> fetchCategories() {
+    private Flux<CategoryDto> fetchCategories() {
         return this.dsClient.get().uri(categoriesFetchUrl)
                 .retrieve().bodyToMono(new ParameterizedTypeReference<List<CategoryDto>>() {
-                }).block();
+                }).flatMapIterable(categories -> categories);
     }
 
-    private Stream<MedicineDto> fetchMedicinesByCategory(String category) {
-
-        Long pageSize = 100L;
+    private Flux<CrawlItem> fetchMedicinesByCategory(CrawlProgress progress, String category) {
+        return progress.crawl(category, 1L, pagination, (page, lastPage) -> fetchMedicinesPage(category, page,
+                total -> lastPage.accept(Pagination.pageCount(total, PAGE_SIZE))));
+    }
 
+    private Flux<MedicineDto> fetchMedicinesPage(String category, Long page, LongConsumer totalConsumer) {
         FilterRequest filterRequest = FilterRequest.builder()
-                .page(1L)
-                .per(100L)
+                .page(page)
+                .per(PAGE_SIZE)
                 .build();
 
-        DSMedicinesResponse dsMedicinesResponse = this.dsClient.post()
+        Flux<DataBuffer> body = this.dsClient.post()
                 .uri(categoryPath + "/" + category)
                 .body(Mono.just(filterRequest), FilterRequest.class)
                 .retrieve()
-                .bodyToMono(DSMedicinesResponse.class)
-                .block();
-
-        Long total;
-        if (dsMedicinesResponse != null) {
-            total = dsMedicinesResponse.getTotal();
-            long pageCount = total / pageSize;
-
-            List<DSMedicinesResponse> responseList = new ArrayList<>();
-            long page = 1L;
-            while (page <= pageCount) {
-                DSMedicinesResponse medicinesResponse = this.dsClient.post()
-                        .uri(categoryPath + "/" + category)
-                        .body(Mono.just(FilterRequest.builder()
-                                .page(page)
-                                .per(pageSize)
-                                .build()), FilterRequest.class)
-                        .retrieve()
-                        .bodyToMono(DSMedicinesResponse.class)
-                        .block();
-                responseList.add(medicinesResponse);
-                page++;
-            }
-            return responseList.stream().map(DSMedicinesResponse::getProducts)
-                    .flatMap(Collection::stream)
-                    .map(this::mapToMedicineDto);
-        }
-        return Stream.of();
-
-
+                .bodyToFlux(DataBuffer.class);
+        return pageDecoder.decode(body, "products", DSMedicineDto.class, "total", totalConsumer)
+                .map(this::mapToMedicineDto);
     }
 
-    private MedicineDto mapToMedicineDto(DSMedicineDto dsMedicineDto) {
+    MedicineDto mapToMedicineDto(DSMedicineDto dsMedicineDto) {
         return MedicineDto.builder()
                 .externalId(dsMedicineDto.getId())
                 .price(dsMedicineDto.getPrice())
@@ -9,26 +9,28 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Objects;
-import java.util.function.BiConsumer;
-import java.util.stream.LongStream;
-import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Qualifier("pharmacyLiki24DataProvider")
-public class PharmacyLiki24DataProvider implements DataProvider {
+public class PharmacyLiki24DataProvider implements ReactiveDataProvider {
+
+    private static final String CATALOGUE = "catalogue";
 
     @Qualifier("pharmacyLiki24WebClient")
     private final WebClient webClient;
 
+    @Qualifier("pharmacyLiki24Pagination")
+    private final Pagination pagination;
+
+    private final CrawlCheckpoints crawlCheckpoints;
+
     @Value("${pharmagator.data-providers.apteka-liki24.initial-page-index}")
     private Long initialPageIndex;
 
@@ -36,47 +38,33 @@ public class PharmacyLiki24DataProvider implements DataProvider {
     private String pharmacyName;
 
     @Override
-    public Stream<MedicineDto> loadData() {
-
-        BiConsumer<Long, List<Liki24MedicinesResponse>> fillListByMedicineResponse = (page, medicinesResponseList1) -> {
-            Liki24MedicinesResponse medicinesResponse = getLiki24MedicinesResponse(page);
-            medicinesResponseList1.add(medicinesResponse);
-        };
-
-        Liki24MedicinesResponse liki24MedicinesResponse = getLiki24MedicinesResponse(initialPageIndex);
-
-        if (liki24MedicinesResponse != null) {
-            log.info("Start fetching: " + LocalDateTime.now());
-
-            Long totalPages = liki24MedicinesResponse.getTotalPages();
-            List<Liki24MedicinesResponse> medicinesResponseList = new ArrayList<>();
-            medicinesResponseList.add(liki24MedicinesResponse);
-
-            long startFetchPage = initialPageIndex + 1;
-            LongStream.rangeClosed(startFetchPage, totalPages)
-                    .parallel()
-                    .forEach(pageNumber -> fillListByMedicineResponse.accept(pageNumber, medicinesResponseList));
-
-            log.info("End Fetching: " + LocalDateTime.now());
-            return medicinesResponseList.stream()
-                    .filter(Objects::nonNull)
-                    .map(Liki24MedicinesResponse::getItems)
-                    .flatMap(Collection::stream)
-                    .map(this::mapToDataProviderMedicineDto);
-        }
-        return Stream.of();
+    public Flux<CrawlItem> loadFlux() {
+        return Flux.defer(() -> {
+                    CrawlProgress progress = crawlCheckpoints.resume(pharmacyName);
+                    return progress.crawl(CATALOGUE, initialPageIndex, pagination, (page, lastPage) ->
+                                    getLiki24MedicinesResponse(page)
+                                            .doOnNext(response -> {
+                                                if (response.getTotalPages() != null) {
+                                                    lastPage.accept(response.getTotalPages());
+                                                }
+                                            })
+                                            .flatMapIterable(Liki24MedicinesResponse::getItems)
+                                            .map(this::mapToDataProviderMedicineDto))
+                            .concatWith(progress.finish());
+                })
+                .doOnSubscribe(subscription -> log.info("Start fetching: " + LocalDateTime.now()))
+                .doOnComplete(() -> log.info("End Fetching: " + LocalDateTime.now()));
     }
 
-    private Liki24MedicinesResponse getLiki24MedicinesResponse(Long page) {
+    private Mono<Liki24MedicinesResponse> getLiki24MedicinesResponse(Long page) {
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .queryParam("page", page)
                         .build())
-                .retrieve().bodyToMono(Liki24MedicinesResponse.class)
-                .block();
+                .retrieve().bodyToMono(Liki24MedicinesResponse.class);
     }
 
-    private MedicineDto mapToDataProviderMedicineDto(Liki24MedicineDto liki24MedicineDto) {
+    MedicineDto mapToDataProviderMedicineDto(Liki24MedicineDto liki24MedicineDto) {
         BigDecimal price = liki24MedicineDto.getPrice() == null ? BigDecimal.ZERO : liki24MedicineDto.getPrice();
         return MedicineDto.builder()
                 .externalId(liki24MedicineDto.getProductId())
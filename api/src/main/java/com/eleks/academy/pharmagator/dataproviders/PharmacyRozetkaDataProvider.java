@@ -13,23 +13,30 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
 
-import java.util.Collection;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.IntStream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 @Qualifier("pharmacyRozetkaDataProvider")
-public class PharmacyRozetkaDataProvider implements DataProvider {
+public class PharmacyRozetkaDataProvider implements ReactiveDataProvider {
 
     @Qualifier("pharmacyRozetkaWebClient")
     private final WebClient rozetkaClient;
 
+    @Qualifier("pharmacyRozetkaPagination")
+    private final Pagination pagination;
+
+    private final CrawlCheckpoints crawlCheckpoints;
+
     @Value("${pharmagator.data-providers.apteka-rozetka.product-ids-fetch-url}")
     private String productIdsFetchUrl;
 
@@ -48,18 +55,57 @@ public class PharmacyRozetkaDataProvider implements DataProvider {
     @Value("${pharmagator.data-providers.apteka-rozetka.pharmacy-name}")
     private String pharmacyName;
 
+    @Value("${pharmagator.data-providers.apteka-rozetka.details.concurrency}")
+    private int detailsConcurrency;
+
+    @Value("${pharmagator.data-providers.apteka-rozetka.details.initial-batch-size}")
+    private int detailsInitialBatchSize;
+
+    @Value("${pharmagator.data-providers.apteka-rozetka.details.min-batch-size}")
+    private int detailsMinBatchSize;
+
+    @Value("${pharmagator.data-providers.apteka-rozetka.details.max-batch-size}")
+    private int detailsMaxBatchSize;
+
+    @Value("${pharmagator.data-providers.apteka-rozetka.details.target-latency}")
+    private Duration detailsTargetLatency;
+
     @Override
-    public Stream<MedicineDto> loadData() {
-        return Stream.iterate(1, page -> page + 1)
-                .map(this::fetchProductIds)
-                .flatMap(Optional::stream)
-                .takeWhile(response -> response.getShowNext() != 0)
-                .map(RozetkaProductIdsResponseData::getIds)
-                .flatMap(this::fetchProducts);
+    public Flux<CrawlItem> loadFlux() {
+        return Flux.defer(() -> {
+            CrawlProgress progress = crawlCheckpoints.resume(pharmacyName);
+            AdaptiveBatchSize detailsBatchSize = new AdaptiveBatchSize(detailsInitialBatchSize,
+                    detailsMinBatchSize, detailsMaxBatchSize, detailsTargetLatency);
+            Flux<ProductRef> products = pagination.fetchWhile(progress.nextPage(categoryId, 1L),
+                            page -> fetchProductIds(page).map(response -> Tuples.of(page, response)),
+                            response -> response.getT2().getShowNext() != 0)
+                    .flatMapIterable(response -> productRefs(response.getT1(), response.getT2().getIds()));
+            return detailsBatchSize.buffer(products)
+                    .flatMapSequential(refs -> progress.track(categoryId, completedPages(refs),
+                            detailsBatchSize.measure(fetchProducts(refs))), detailsConcurrency)
+                    .concatWith(progress.finish())
+                    .doOnComplete(() -> log.info("Rozetka details batch size settled at {}", detailsBatchSize.current()));
+        });
     }
 
-    private Optional<RozetkaProductIdsResponseData> fetchProductIds(int page) {
-        RozetkaProductIdsResponse productIds = this.rozetkaClient.get().uri(u -> u
+    private List<ProductRef> productRefs(long page, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of(new ProductRef(page, null, true));
+        }
+        return IntStream.range(0, ids.size())
+                .mapToObj(i -> new ProductRef(page, ids.get(i), i == ids.size() - 1))
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> completedPages(List<ProductRef> refs) {
+        return refs.stream()
+                .filter(ProductRef::lastOnPage)
+                .map(ProductRef::page)
+                .collect(Collectors.toList());
+    }
+
+    private Mono<RozetkaProductIdsResponseData> fetchProductIds(long page) {
+        return this.rozetkaClient.get().uri(u -> u
                         .path(productIdsFetchUrl)
                         .queryParam("category_id", categoryId)
                         .queryParam("sell_status", sellStatus)
@@ -68,36 +114,36 @@ public class PharmacyRozetkaDataProvider implements DataProvider {
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<RozetkaProductIdsResponse>() {
                 })
-                .block();
-        return Optional.ofNullable(productIds)
-                .map(RozetkaProductIdsResponse::getData);
+                .flatMap(productIds -> Mono.justOrEmpty(productIds.getData()));
     }
 
-    private Stream<MedicineDto> fetchProducts(List<Long> productIdsList) {
-        if(productIdsList.isEmpty()) {
-            return Stream.empty();
+    private Flux<MedicineDto> fetchProducts(List<ProductRef> refs) {
+        List<Long> productIdsList = refs.stream()
+                .map(ProductRef::id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (productIdsList.isEmpty()) {
+            return Flux.empty();
         }
         String productIds = productIdsList.stream()
                 .map(Object::toString)
                 .collect(Collectors.joining(","));
-        RozetkaMedicineResponse rozetkaMedicineResponse = this.rozetkaClient.get().uri(u -> u
+        return this.rozetkaClient.get().uri(u -> u
                         .path(productsPath)
                         .queryParam("product_ids", productIds)
                         .build())
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<RozetkaMedicineResponse>() {
                 })
-                .block();
-        return Optional.ofNullable(rozetkaMedicineResponse).map(RozetkaMedicineResponse::getData).stream()
-                .flatMap(Collection::stream)
+                .flatMap(response -> Mono.justOrEmpty(response.getData()))
+                .flatMapIterable(medicines -> medicines)
                 .filter(rozetkaMedicineDto -> Objects.nonNull(rozetkaMedicineDto.getId())
                         && Objects.nonNull(rozetkaMedicineDto.getMpath())
                         && rozetkaMedicineDto.getMpath().contains(medicamentCategoryId))
                 .map(this::mapToMedicineDto);
-
     }
 
-    private MedicineDto mapToMedicineDto(RozetkaMedicineDto rozetkaMedicineDto) {
+    MedicineDto mapToMedicineDto(RozetkaMedicineDto rozetkaMedicineDto) {
         return MedicineDto.builder()
                 .externalId(rozetkaMedicineDto.getId().toString())
                 .price(rozetkaMedicineDto.getPrice())
@@ -106,4 +152,7 @@ public class PharmacyRozetkaDataProvider implements DataProvider {
                 .build();
     }
 
+    private record ProductRef(long page, Long id, boolean lastOnPage) {
+    }
+
 }
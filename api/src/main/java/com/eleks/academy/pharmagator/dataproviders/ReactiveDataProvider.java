@@ -0,0 +1,24 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.stream.Stream;
+
+public interface ReactiveDataProvider extends DataProvider {
+
+    Flux<CrawlItem> loadFlux();
+
+    @Override
+    default Stream<CrawlItem> loadData() {
+        return loadFlux().toStream();
+    }
+
+    static ReactiveDataProvider adapt(DataProvider dataProvider, Scheduler scheduler) {
+        if (dataProvider instanceof ReactiveDataProvider reactiveDataProvider) {
+            return reactiveDataProvider;
+        }
+        return new StreamDataProviderAdapter(dataProvider, scheduler);
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+public class ResilientExchangeFilter implements ExchangeFilterFunction {
+
+    private final String name;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Duration requestTimeout;
+
+    private final Retry retry;
+
+    private final MeterRegistry meterRegistry;
+
+    public ResilientExchangeFilter(String name, CircuitBreaker circuitBreaker, Duration requestTimeout,
+                                   int maxAttempts, Duration minBackoff, Duration maxBackoff, double jitter,
+                                   MeterRegistry meterRegistry) {
+        this.name = name;
+        this.circuitBreaker = circuitBreaker;
+        this.requestTimeout = requestTimeout;
+        this.meterRegistry = meterRegistry;
+        this.retry = Retry.backoff(Math.max(0, maxAttempts - 1), minBackoff)
+                .maxBackoff(maxBackoff)
+                .jitter(jitter)
+                .filter(ResilientExchangeFilter::isRetryable)
+                .doBeforeRetry(signal -> {
+                    log.debug("{} retrying {} after {}", name, signal.totalRetries() + 1, signal.failure().toString());
+                    count("retried");
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+        Gauge.builder("pharmagator.data-provider.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .tag("provider", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                count("rejected");
+                return Mono.error(new CircuitBreakerOpenException(name));
+            }
+            return Mono.defer(() -> next.exchange(request))
+                    .flatMap(response -> isRetryable(response.rawStatusCode())
+                            ? response.createException().flatMap(Mono::error)
+                            : Mono.just(response))
+                    .retryWhen(retry)
+                    .doOnSuccess(response -> {
+                        circuitBreaker.onSuccess();
+                        count(response != null && response.rawStatusCode() >= 400 ? "client_error" : "success");
+                    })
+                    .doOnError(e -> {
+                        circuitBreaker.onFailure();
+                        count(e instanceof TimeoutException ? "timeout" : "failure");
+                    })
+                    .doOnCancel(circuitBreaker::onCancel);
+        });
+    }
+
+    /**
+     * Per-attempt deadline for the response headers and body. It is registered inside the concurrency limiter,
+     * so time spent waiting for a permit is not counted as an upstream timeout.
+     */
+    public ExchangeFilterFunction deadline() {
+        return (request, next) -> Mono.defer(() -> {
+            long deadline = System.nanoTime() + requestTimeout.toNanos();
+            return next.exchange(request)
+                    .timeout(requestTimeout)
+                    .map(response -> response.mutate()
+                            .body(body -> body.timeout(remaining(deadline), ignored -> remaining(deadline)))
+                            .build());
+        });
+    }
+
+    private static Mono<Long> remaining(long deadline) {
+        return Mono.defer(() -> Mono.delay(Duration.ofNanos(Math.max(0, deadline - System.nanoTime()))));
+    }
+
+    private void count(String outcome) {
+        Counter.builder("pharmagator.data-provider.requests")
+                .tag("provider", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof WebClientResponseException) {
+            return isRetryable(((WebClientResponseException) e).getRawStatusCode());
+        }
+        return e instanceof TimeoutException || e instanceof WebClientRequestException || e instanceof IOException;
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status >= 500;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class StreamDataProviderAdapter implements ReactiveDataProvider {
+
+    private final DataProvider dataProvider;
+
+    private final Scheduler scheduler;
+
+    @Override
+    public Flux<CrawlItem> loadFlux() {
+        return Flux.fromStream(dataProvider::loadData)
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Stream<CrawlItem> loadData() {
+        return dataProvider.loadData();
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+@Component
+@RequiredArgsConstructor
+public class StreamingPageDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    public <T> Flux<T> decode(Flux<DataBuffer> body, String itemsField, Class<T> itemType,
+                              String totalField, LongConsumer totalConsumer) {
+        return Flux.defer(() -> {
+            PageParser<T> pageParser = new PageParser<>(itemsField, itemType, totalField, totalConsumer);
+            return body.concatMapIterable(pageParser::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(pageParser.endOfInput())))
+                    .doFinally(signal -> pageParser.close());
+        });
+    }
+
+    private class PageParser<T> {
+
+        private final String itemsField;
+
+        private final Class<T> itemType;
+
+        private final String totalField;
+
+        private final LongConsumer totalConsumer;
+
+        private final JsonParser parser;
+
+        private final ByteArrayFeeder feeder;
+
+        private int depth;
+
+        private String rootField;
+
+        private boolean inItems;
+
+        private TokenBuffer item;
+
+        PageParser(String itemsField, Class<T> itemType, String totalField, LongConsumer totalConsumer) {
+            this.itemsField = itemsField;
+            this.itemType = itemType;
+            this.totalField = totalField;
+            this.totalConsumer = totalConsumer;
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new DecodingException("Could not create JSON parser", e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<T> feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                return parse();
+            } catch (IOException e) {
+                throw new DecodingException("Could not decode JSON page", e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<T> endOfInput() {
+            try {
+                feeder.endOfInput();
+                return parse();
+            } catch (IOException e) {
+                throw new DecodingException("Could not decode JSON page", e);
+            }
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        private List<T> parse() throws IOException {
+            List<T> items = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (item != null) {
+                    item.copyCurrentEvent(parser);
+                }
+                if (token.isStructStart()) {
+                    depth++;
+                    if (depth == 2 && token == JsonToken.START_ARRAY && itemsField.equals(rootField)) {
+                        inItems = true;
+                    } else if (depth == 3 && inItems && item == null) {
+                        item = new TokenBuffer(parser);
+                        item.forceUseOfBigDecimal(true);
+                        item.copyCurrentEvent(parser);
+                    }
+                } else if (token.isStructEnd()) {
+                    depth--;
+                    if (depth == 2 && item != null) {
+                        items.add(objectMapper.readValue(item.asParser(objectMapper), itemType));
+                        item = null;
+                    } else if (depth == 1) {
+                        inItems = false;
+                    }
+                } else if (depth == 1 && token == JsonToken.FIELD_NAME) {
+                    rootField = parser.getCurrentName();
+                } else if (depth == 1 && token.isScalarValue() && totalField.equals(rootField)) {
+                    totalConsumer.accept(parser.getValueAsLong());
+                }
+            }
+            return items;
+        }
+
+    }
+
+}
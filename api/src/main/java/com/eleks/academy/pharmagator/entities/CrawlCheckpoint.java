@@ -0,0 +1,34 @@
+package com.eleks.academy.pharmagator.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "crawl_checkpoints")
+@IdClass(CrawlCheckpointId.class)
+public class CrawlCheckpoint {
+
+    @Id
+    private String provider;
+
+    @Id
+    private String category;
+
+    private Long completedPage;
+
+    private Long lastPage;
+
+    private boolean completed;
+
+    private Instant updatedAt;
+
+}
@@ -0,0 +1,13 @@
+package com.eleks.academy.pharmagator.entities;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CrawlCheckpointId implements Serializable {
+    private String provider;
+    private String category;
+}
@@ -16,7 +16,8 @@ import javax.persistence.*;
 public class Medicine {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medicines_seq")
+    @SequenceGenerator(name = "medicines_seq", sequenceName = "medicines_seq", allocationSize = 50)
     private Long id;
 
     private String title;
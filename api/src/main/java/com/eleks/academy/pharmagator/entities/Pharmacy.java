@@ -14,7 +14,8 @@ import javax.persistence.*;
 public class Pharmacy {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pharmacies_seq")
+    @SequenceGenerator(name = "pharmacies_seq", sequenceName = "pharmacies_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,32 @@
+package com.eleks.academy.pharmagator.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "price_history")
+@IdClass(PriceHistoryId.class)
+public class PriceHistory {
+
+    @Id
+    private Long medicineId;
+
+    @Id
+    private Instant recordedAt;
+
+    @Id
+    private Long pharmacyId;
+
+    private BigDecimal price;
+
+}
@@ -0,0 +1,15 @@
+package com.eleks.academy.pharmagator.entities;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceHistoryId implements Serializable {
+    private Long medicineId;
+    private Instant recordedAt;
+    private Long pharmacyId;
+}
@@ -0,0 +1,202 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import com.eleks.academy.pharmagator.dataproviders.CrawlItem;
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CopyBulkLoader {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String TRUNCATE_STAGING_SQL = "TRUNCATE medicine_prices_staging";
+
+    private static final String COPY_STAGING_SQL = """
+            COPY medicine_prices_staging (ordinal, pharmacy_name, title, price, external_id)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private static final String MERGE_PHARMACIES_SQL = """
+            WITH created AS (
+                SELECT n.name, row_number() OVER (ORDER BY n.name) - 1 AS ordinal
+                FROM (
+                    SELECT DISTINCT s.pharmacy_name AS name
+                    FROM medicine_prices_staging s
+                    WHERE NOT EXISTS (SELECT 1 FROM pharmacies p WHERE p.name = s.pharmacy_name)
+                ) n
+            ), id_blocks AS (
+                SELECT b.block, nextval('pharmacies_seq') AS last_id
+                FROM generate_series(0, (SELECT (count(*) + %1$d - 1) / %1$d - 1 FROM created)) AS b (block)
+            )
+            INSERT INTO pharmacies (id, name)
+            SELECT ib.last_id - %1$d + 1 + c.ordinal %% %1$d, c.name
+            FROM created c
+            JOIN id_blocks ib ON ib.block = c.ordinal / %1$d
+            ON CONFLICT (name) DO NOTHING
+            """.formatted(IdCache.ID_BLOCK_SIZE);
+
+    private static final String MERGE_MEDICINES_SQL = """
+            WITH created AS (
+                SELECT n.title, row_number() OVER (ORDER BY n.title) - 1 AS ordinal
+                FROM (
+                    SELECT DISTINCT s.title AS title
+                    FROM medicine_prices_staging s
+                    WHERE NOT EXISTS (SELECT 1 FROM medicines m WHERE m.title = s.title)
+                ) n
+            ), id_blocks AS (
+                SELECT b.block, nextval('medicines_seq') AS last_id
+                FROM generate_series(0, (SELECT (count(*) + %1$d - 1) / %1$d - 1 FROM created)) AS b (block)
+            )
+            INSERT INTO medicines (id, title)
+            SELECT ib.last_id - %1$d + 1 + c.ordinal %% %1$d, c.title
+            FROM created c
+            JOIN id_blocks ib ON ib.block = c.ordinal / %1$d
+            ON CONFLICT (title) DO NOTHING
+            """.formatted(IdCache.ID_BLOCK_SIZE);
+
+    private static final String RECORD_PRICE_HISTORY_SQL = """
+            INSERT INTO price_history (medicine_id, pharmacy_id, price)
+            SELECT l.medicine_id, l.pharmacy_id, l.price
+            FROM (
+                SELECT DISTINCT ON (p.id, m.id) p.id AS pharmacy_id, m.id AS medicine_id, s.price
+                FROM medicine_prices_staging s
+                JOIN pharmacies p ON p.name = s.pharmacy_name
+                JOIN medicines m ON m.title = s.title
+                ORDER BY p.id, m.id, s.ordinal DESC
+            ) l
+            LEFT JOIN prices pr ON pr.pharmacy_id = l.pharmacy_id AND pr.medicine_id = l.medicine_id
+            WHERE pr.price IS DISTINCT FROM l.price
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String MERGE_PRICES_SQL = """
+            INSERT INTO prices (pharmacy_id, medicine_id, price, external_id)
+            SELECT DISTINCT ON (p.id, m.id) p.id, m.id, s.price, s.external_id
+            FROM medicine_prices_staging s
+            JOIN pharmacies p ON p.name = s.pharmacy_name
+            JOIN medicines m ON m.title = s.title
+            ORDER BY p.id, m.id, s.ordinal DESC
+            ON CONFLICT (pharmacy_id, medicine_id) DO UPDATE
+            SET price = EXCLUDED.price,
+                external_id = EXCLUDED.external_id,
+                updated_at = now()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${pharmagator.ingestion.copy-chunk-size}")
+    private int copyChunkSize;
+
+    public long load(Stream<CrawlItem> items) {
+        jdbcTemplate.execute(TRUNCATE_STAGING_SQL);
+        List<Runnable> checkpoints = new ArrayList<>();
+        try {
+            long staged = spool(items, checkpoints);
+            log.info("Copied {} medicines into staging table", staged);
+            return merge(checkpoints);
+        } catch (RuntimeException e) {
+            log.error("Bulk load failed, merging the medicines staged so far", e);
+            try {
+                merge(checkpoints);
+            } catch (RuntimeException mergeError) {
+                e.addSuppressed(mergeError);
+            }
+            throw e;
+        } finally {
+            jdbcTemplate.execute(TRUNCATE_STAGING_SQL);
+        }
+    }
+
+    private long merge(List<Runnable> checkpoints) {
+        Long written = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(MERGE_PHARMACIES_SQL);
+            int createdMedicines = jdbcTemplate.update(MERGE_MEDICINES_SQL);
+            int changedPrices = jdbcTemplate.update(RECORD_PRICE_HISTORY_SQL);
+            long mergedPrices = jdbcTemplate.update(MERGE_PRICES_SQL);
+            log.info("Merged {} prices ({} changed) and {} new medicines from staging table",
+                    mergedPrices, changedPrices, createdMedicines);
+            return mergedPrices;
+        });
+        checkpoints.forEach(Runnable::run);
+        return written == null ? 0 : written;
+    }
+
+    private long spool(Stream<CrawlItem> items, List<Runnable> checkpoints) {
+        long ordinal = 0;
+        int rows = 0;
+        List<Runnable> pending = new ArrayList<>();
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream(COPY_BUFFER_SIZE);
+        Iterator<CrawlItem> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            CrawlItem item = iterator.next();
+            if (item instanceof CrawlItem.Checkpoint checkpoint) {
+                (rows == 0 ? checkpoints : pending).add(checkpoint.commit());
+                continue;
+            }
+            MedicineDto dto = ((CrawlItem.Medicine) item).dto();
+            if (dto.getTitle() == null || dto.getPrice() == null
+                    || dto.getPharmacyName() == null || dto.getExternalId() == null) {
+                continue;
+            }
+            byte[] row = toCsvRow(ordinal++, dto).getBytes(StandardCharsets.UTF_8);
+            chunk.write(row, 0, row.length);
+            if (++rows == copyChunkSize) {
+                copy(chunk);
+                chunk.reset();
+                rows = 0;
+                checkpoints.addAll(pending);
+                pending.clear();
+            }
+        }
+        if (rows > 0) {
+            copy(chunk);
+        }
+        checkpoints.addAll(pending);
+        return ordinal;
+    }
+
+    private void copy(ByteArrayOutputStream chunk) {
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_STAGING_SQL, new ByteArrayInputStream(chunk.toByteArray()), COPY_BUFFER_SIZE);
+            } catch (IOException e) {
+                throw new SQLException("Failed to copy into staging table", e);
+            }
+        });
+    }
+
+    private static String toCsvRow(long ordinal, MedicineDto dto) {
+        return ordinal + ","
+                + escapeCsv(dto.getPharmacyName()) + ","
+                + escapeCsv(dto.getTitle()) + ","
+                + dto.getPrice().toPlainString() + ","
+                + escapeCsv(dto.getExternalId()) + "\n";
+    }
+
+    private static String escapeCsv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+public class IdCache {
+
+    private static final int MAX_BIND_PARAMETERS = Short.MAX_VALUE;
+
+    /**
+     * Increment of the id sequences; each {@code nextval} reserves the block of ids ending at the returned value,
+     * as Hibernate's pooled optimizer does.
+     */
+    static final int ID_BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String table;
+
+    private final String column;
+
+    private final MedicineMatcher matcher;
+
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final Object insertLock = new Object();
+
+    public IdCache(JdbcTemplate jdbcTemplate, String table, String column) {
+        this(jdbcTemplate, table, column, null);
+    }
+
+    public IdCache(JdbcTemplate jdbcTemplate, String table, String column, MedicineMatcher matcher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.column = column;
+        this.matcher = matcher;
+    }
+
+    public void warmUp() {
+        synchronized (insertLock) {
+            ids.clear();
+            hits.reset();
+            misses.reset();
+            if (matcher != null) {
+                matcher.clear();
+            }
+            jdbcTemplate.query("SELECT id, " + column + " FROM " + table + " WHERE " + column + " IS NOT NULL",
+                    rs -> {
+                        ids.put(rs.getString(2), rs.getLong(1));
+                        if (matcher != null) {
+                            matcher.add(rs.getString(2), rs.getLong(1));
+                        }
+                    });
+        }
+    }
+
+    public Map<String, Long> resolve(Set<String> keys) {
+        return resolve(keys, Map.of());
+    }
+
+    public Map<String, Long> resolve(Set<String> keys, Map<String, Set<Sku>> skus) {
+        Map<String, Long> resolved = new HashMap<>(keys.size());
+        List<String> missing = new ArrayList<>();
+        keys.forEach(key -> {
+            Long id = ids.get(key);
+            if (id != null) {
+                resolved.put(key, id);
+            } else {
+                missing.add(key);
+            }
+        });
+        hits.add(resolved.size());
+        misses.add(missing.size());
+
+        if (!missing.isEmpty()) {
+            resolved.putAll(load(missing, skus));
+        }
+        return resolved;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private Map<String, Long> load(List<String> keys, Map<String, Set<Sku>> skus) {
+        synchronized (insertLock) {
+            Map<String, Long> loaded = new HashMap<>(keys.size());
+            List<String> unknown = new ArrayList<>();
+            keys.forEach(key -> {
+                Long id = ids.get(key);
+                if (id != null) {
+                    loaded.put(key, id);
+                } else {
+                    unknown.add(key);
+                }
+            });
+
+            for (List<String> part : partition(unknown)) {
+                jdbcTemplate.query("SELECT t.id, t." + column + " FROM " + table + " t"
+                                + " JOIN (VALUES " + values(part.size()) + ") AS v (key) ON t." + column + " = v.key",
+                        rs -> {
+                            loaded.put(rs.getString(2), rs.getLong(1));
+                        },
+                        part.toArray());
+            }
+
+            List<String> created = unknown.stream()
+                    .filter(key -> !loaded.containsKey(key))
+                    .sorted()
+                    .collect(Collectors.toList());
+            Map<String, List<String>> duplicates = Map.of();
+            if (matcher != null) {
+                duplicates = matcher.group(created, loaded, skus, this::pricedSkus);
+                created = new ArrayList<>(duplicates.keySet());
+            }
+            for (List<String> part : partition(created, MAX_BIND_PARAMETERS / 2)) {
+                List<Long> newIds = allocateIds(part.size());
+                Object[] parameters = new Object[part.size() * 2];
+                for (int i = 0; i < part.size(); i++) {
+                    parameters[2 * i] = newIds.get(i);
+                    parameters[2 * i + 1] = part.get(i);
+                }
+                jdbcTemplate.query("INSERT INTO " + table + " (id, " + column + ") VALUES "
+                                + String.join(", ", Collections.nCopies(part.size(), "(?, ?)"))
+                                + " ON CONFLICT (" + column + ") DO UPDATE SET " + column + " = EXCLUDED." + column
+                                + " RETURNING id, " + column,
+                        rs -> {
+                            loaded.put(rs.getString(2), rs.getLong(1));
+                        },
+                        parameters);
+            }
+            duplicates.forEach((key, group) -> {
+                Long id = loaded.get(key);
+                group.forEach(duplicate -> loaded.put(duplicate, id));
+                matcher.add(key, id);
+            });
+
+            ids.putAll(loaded);
+            return loaded;
+        }
+    }
+
+    private List<Long> allocateIds(int count) {
+        List<Long> blocks = jdbcTemplate.queryForList("SELECT nextval('" + table + "_seq') FROM generate_series(1, ?)",
+                Long.class, (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE);
+        List<Long> allocated = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            allocated.add(blocks.get(i / ID_BLOCK_SIZE) - ID_BLOCK_SIZE + 1 + i % ID_BLOCK_SIZE);
+        }
+        return allocated;
+    }
+
+    private Map<Long, Set<Sku>> pricedSkus(Set<Long> medicineIds) {
+        Map<Long, Set<Sku>> skus = new HashMap<>();
+        for (List<Long> part : partition(new ArrayList<>(medicineIds))) {
+            jdbcTemplate.query("SELECT p.medicine_id, p.pharmacy_id, p.external_id FROM prices p"
+                            + " JOIN (VALUES " + values(part.size()) + ") AS v (id) ON p.medicine_id = v.id",
+                    rs -> {
+                        skus.computeIfAbsent(rs.getLong(1), id -> new HashSet<>())
+                                .add(new Sku(rs.getLong(2), rs.getString(3)));
+                    },
+                    part.toArray());
+        }
+        return skus;
+    }
+
+    private static String values(int rows) {
+        return String.join(", ", Collections.nCopies(rows, "(?)"));
+    }
+
+    private static <T> List<List<T>> partition(List<T> list) {
+        return partition(list, MAX_BIND_PARAMETERS);
+    }
+
+    private static <T> List<List<T>> partition(List<T> list, int size) {
+        List<List<T>> parts = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += size) {
+            parts.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return parts;
+    }
+
+}
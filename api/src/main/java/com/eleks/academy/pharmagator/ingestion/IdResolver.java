@@ -0,0 +1,56 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Slf4j
+@Getter
+@Component
+public class IdResolver {
+
+    private final IdCache medicines;
+
+    private final IdCache pharmacies;
+
+    private final MedicineMatcher medicineMatcher;
+
+    public IdResolver(JdbcTemplate jdbcTemplate, Optional<MedicineMatcher> medicineMatcher) {
+        this.medicineMatcher = medicineMatcher.orElse(null);
+        this.medicines = new IdCache(jdbcTemplate, "medicines", "title", this.medicineMatcher);
+        this.pharmacies = new IdCache(jdbcTemplate, "pharmacies", "name");
+    }
+
+    public void warmUp() {
+        pharmacies.warmUp();
+        medicines.warmUp();
+        log.info("Id resolver warmed up with {} pharmacies and {} medicines", pharmacies.size(), medicines.size());
+    }
+
+    public Map<String, Long> resolveMedicineIds(Set<String> titles) {
+        return medicines.resolve(titles);
+    }
+
+    public Map<String, Long> resolveMedicineIds(Map<String, Set<Sku>> skusByTitle) {
+        return medicines.resolve(skusByTitle.keySet(), skusByTitle);
+    }
+
+    public Map<String, Long> resolvePharmacyIds(Set<String> names) {
+        return pharmacies.resolve(names);
+    }
+
+    public void logStatistics() {
+        log.info("Id resolver statistics: medicines {} hits / {} misses, pharmacies {} hits / {} misses",
+                medicines.getHits(), medicines.getMisses(), pharmacies.getHits(), pharmacies.getMisses());
+        if (medicineMatcher != null) {
+            log.info("Medicine matcher statistics: {} indexed titles, {} fuzzy matches",
+                    medicineMatcher.size(), medicineMatcher.getMatches());
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class IngestionExecutors implements DisposableBean {
+
+    private static final String WRITER_NAME = "ingestion-writer";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Scheduler> schedulers = new ConcurrentHashMap<>();
+
+    @Value("${pharmagator.ingestion.fetch-threads}")
+    private int fetchThreads;
+
+    @Value("${pharmagator.ingestion.fetch-queue-capacity}")
+    private int fetchQueueCapacity;
+
+    @Value("${pharmagator.ingestion.writer-concurrency}")
+    private int writerThreads;
+
+    @Value("${pharmagator.ingestion.writer-queue-capacity}")
+    private int writerQueueCapacity;
+
+    public Scheduler fetchScheduler(String dataProviderName) {
+        return schedulers.computeIfAbsent("ingestion-fetch-" + dataProviderName,
+                name -> newScheduler(name, fetchThreads, fetchQueueCapacity));
+    }
+
+    public Scheduler writerScheduler() {
+        return schedulers.computeIfAbsent(WRITER_NAME,
+                name -> newScheduler(name, writerThreads, writerQueueCapacity));
+    }
+
+    @Override
+    public void destroy() {
+        schedulers.values().forEach(Scheduler::dispose);
+    }
+
+    private Scheduler newScheduler(String name, int threads, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(name + "-"));
+        executor.allowCoreThreadTimeOut(true);
+        new ExecutorServiceMetrics(executor, name, Tags.of("pool", "ingestion")).bindTo(meterRegistry);
+        return Schedulers.fromExecutorService(executor, name);
+    }
+
+}
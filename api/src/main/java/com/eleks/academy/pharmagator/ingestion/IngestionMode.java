@@ -0,0 +1,9 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+public enum IngestionMode {
+
+    BATCH,
+
+    COPY
+
+}
@@ -0,0 +1,100 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public class MedicineMatcher {
+
+    private final int bands;
+
+    private final int rows;
+
+    private final double similarityThreshold;
+
+    private final MinHashIndex index;
+
+    private final LongAdder matches = new LongAdder();
+
+    public MedicineMatcher(int bands, int rows, double similarityThreshold) {
+        this.bands = bands;
+        this.rows = rows;
+        this.similarityThreshold = similarityThreshold;
+        this.index = new MinHashIndex(bands, rows, similarityThreshold);
+    }
+
+    public synchronized void clear() {
+        index.clear();
+        matches.reset();
+    }
+
+    public synchronized void add(String title, long id) {
+        index.add(title, id);
+    }
+
+    public synchronized Long match(String title) {
+        return index.match(title);
+    }
+
+    public synchronized Map<String, List<String>> group(List<String> titles, Map<String, Long> matched,
+                                                       Map<String, Set<Sku>> skus,
+                                                       Function<Set<Long>, Map<Long, Set<Sku>>> pricedSkus) {
+        List<MinHashIndex.Signature> signatures = new ArrayList<>(titles.size());
+        Map<String, Long> candidates = new HashMap<>();
+        for (String title : titles) {
+            MinHashIndex.Signature signature = index.signature(title);
+            signatures.add(signature);
+            Long id = index.match(signature);
+            if (id != null) {
+                candidates.put(title, id);
+            }
+        }
+        Map<Long, Set<Sku>> priced = new HashMap<>();
+        if (!candidates.isEmpty()) {
+            pricedSkus.apply(new HashSet<>(candidates.values()))
+                    .forEach((id, idSkus) -> priced.put(id, new HashSet<>(idSkus)));
+        }
+
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        List<String> created = new ArrayList<>();
+        List<Set<Sku>> createdSkus = new ArrayList<>();
+        MinHashIndex pending = new MinHashIndex(bands, rows, similarityThreshold);
+        for (int i = 0; i < titles.size(); i++) {
+            String title = titles.get(i);
+            Set<Sku> titleSkus = skus.getOrDefault(title, Set.of());
+            Long id = candidates.get(title);
+            if (id != null && !conflicts(titleSkus, priced.getOrDefault(id, Set.of()))) {
+                priced.computeIfAbsent(id, ignored -> new HashSet<>()).addAll(titleSkus);
+                matched.put(title, id);
+                matches.increment();
+                continue;
+            }
+            Long duplicateOf = pending.match(signatures.get(i));
+            if (duplicateOf != null && !conflicts(titleSkus, createdSkus.get(duplicateOf.intValue()))) {
+                groups.get(created.get(duplicateOf.intValue())).add(title);
+                createdSkus.get(duplicateOf.intValue()).addAll(titleSkus);
+                matches.increment();
+                continue;
+            }
+            pending.add(signatures.get(i), created.size());
+            created.add(title);
+            createdSkus.add(new HashSet<>(titleSkus));
+            groups.put(title, new ArrayList<>(List.of(title)));
+        }
+        return groups;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public long getMatches() {
+        return matches.sum();
+    }
+
+    private static boolean conflicts(Set<Sku> skus, Set<Sku> others) {
+        return skus.stream().anyMatch(sku -> others.stream().anyMatch(other -> other.pharmacyId() == sku.pharmacyId()
+                && !Objects.equals(other.externalId(), sku.externalId())));
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class MinHashIndex {
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private static final int EMPTY = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int bands;
+
+    private final int rows;
+
+    private final double threshold;
+
+    private final long[] seeds;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private int[][] shingles = new int[INITIAL_CAPACITY][];
+
+    private long[] numbers = new long[INITIAL_CAPACITY];
+
+    private int[] visited = new int[INITIAL_CAPACITY];
+
+    private int visit;
+
+    private int size;
+
+    private int[] heads = emptyHeads(INITIAL_CAPACITY);
+
+    private int[] postingKeys = new int[INITIAL_CAPACITY];
+
+    private int[] postingItems = new int[INITIAL_CAPACITY];
+
+    private int[] postingNext = new int[INITIAL_CAPACITY];
+
+    private int postings;
+
+    public MinHashIndex(int bands, int rows, double threshold) {
+        if (bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("Bands and rows must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.threshold = threshold;
+        this.seeds = new SplittableRandom(SEED).longs(bands * rows).toArray();
+    }
+
+    public void add(String title, long id) {
+        add(signature(title), id);
+    }
+
+    public void add(Signature signature, long id) {
+        if (signature.shingles.length == 0) {
+            return;
+        }
+        int item = size++;
+        ensureItemCapacity(size);
+        ids[item] = id;
+        shingles[item] = signature.shingles;
+        numbers[item] = signature.numbers;
+        for (int key : signature.bandKeys) {
+            addPosting(key, item);
+        }
+    }
+
+    public Long match(String title) {
+        return match(signature(title));
+    }
+
+    public Long match(Signature signature) {
+        if (signature.shingles.length == 0 || size == 0) {
+            return null;
+        }
+        if (++visit == 0) {
+            Arrays.fill(visited, 0);
+            visit = 1;
+        }
+        int best = EMPTY;
+        double bestSimilarity = threshold;
+        for (int key : signature.bandKeys) {
+            for (int posting = heads[key & (heads.length - 1)]; posting != EMPTY; posting = postingNext[posting]) {
+                int item = postingItems[posting];
+                if (postingKeys[posting] != key || visited[item] == visit) {
+                    continue;
+                }
+                visited[item] = visit;
+                if (numbers[item] != signature.numbers) {
+                    continue;
+                }
+                double similarity = jaccard(shingles[item], signature.shingles);
+                if (similarity >= bestSimilarity) {
+                    best = item;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+        return best == EMPTY ? null : ids[best];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        ids = new long[INITIAL_CAPACITY];
+        shingles = new int[INITIAL_CAPACITY][];
+        numbers = new long[INITIAL_CAPACITY];
+        visited = new int[INITIAL_CAPACITY];
+        size = 0;
+        heads = emptyHeads(INITIAL_CAPACITY);
+        postingKeys = new int[INITIAL_CAPACITY];
+        postingItems = new int[INITIAL_CAPACITY];
+        postingNext = new int[INITIAL_CAPACITY];
+        postings = 0;
+    }
+
+    static double jaccard(int[] left, int[] right) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (left.length + right.length - common);
+    }
+
+    public Signature signature(String title) {
+        List<String> tokens = TitleNormalizer.tokens(title);
+        long numbers = 0;
+        int[] hashes = new int[tokens.size() * 4];
+        int count = 0;
+        for (String token : tokens) {
+            if (TitleNormalizer.isNumber(token)) {
+                numbers = mix(numbers * 31 + token.hashCode());
+                hashes = ensureLength(hashes, count + 1);
+                hashes[count++] = (int) mix(token.hashCode() ^ 0x9E3779B97F4A7C15L);
+                continue;
+            }
+            String padded = " " + token + " ";
+            int grams = padded.length() - 2;
+            hashes = ensureLength(hashes, count + grams);
+            for (int i = 0; i < grams; i++) {
+                long gram = (long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2);
+                hashes[count++] = (int) mix(gram);
+            }
+        }
+        int[] distinct = Arrays.stream(hashes, 0, count).sorted().distinct().toArray();
+        return new Signature(distinct, numbers, bandKeys(distinct, numbers));
+    }
+
+    private int[] bandKeys(int[] shingles, long numbers) {
+        int[] keys = new int[bands];
+        if (shingles.length == 0) {
+            return keys;
+        }
+        for (int band = 0; band < bands; band++) {
+            long key = numbers * 31 + band;
+            for (int row = 0; row < rows; row++) {
+                long seed = seeds[band * rows + row];
+                long min = Long.MAX_VALUE;
+                for (int shingle : shingles) {
+                    min = Math.min(min, mix(shingle ^ seed));
+                }
+                key = key * 31 + min;
+            }
+            keys[band] = (int) mix(key);
+        }
+        return keys;
+    }
+
+    private void addPosting(int key, int item) {
+        if (postings == postingKeys.length) {
+            postingKeys = Arrays.copyOf(postingKeys, postings * 2);
+            postingItems = Arrays.copyOf(postingItems, postings * 2);
+            postingNext = Arrays.copyOf(postingNext, postings * 2);
+        }
+        int posting = postings++;
+        postingKeys[posting] = key;
+        postingItems[posting] = item;
+        if (postings > heads.length / 2) {
+            rehash(heads.length * 2);
+        } else {
+            link(posting);
+        }
+    }
+
+    private void rehash(int capacity) {
+        heads = emptyHeads(capacity);
+        for (int posting = 0; posting < postings; posting++) {
+            link(posting);
+        }
+    }
+
+    private void link(int posting) {
+        int slot = postingKeys[posting] & (heads.length - 1);
+        postingNext[posting] = heads[slot];
+        heads[slot] = posting;
+    }
+
+    private void ensureItemCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int length = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, length);
+            shingles = Arrays.copyOf(shingles, length);
+            numbers = Arrays.copyOf(numbers, length);
+            visited = Arrays.copyOf(visited, length);
+        }
+    }
+
+    private static int[] ensureLength(int[] array, int length) {
+        return length > array.length ? Arrays.copyOf(array, Math.max(length, array.length * 2)) : array;
+    }
+
+    private static int[] emptyHeads(int capacity) {
+        int[] heads = new int[capacity];
+        Arrays.fill(heads, EMPTY);
+        return heads;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    public record Signature(int[] shingles, long numbers, int[] bandKeys) {
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import com.eleks.academy.pharmagator.dataproviders.CrawlItem;
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import com.eleks.academy.pharmagator.entities.Price;
+import com.eleks.academy.pharmagator.entities.PriceId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PriceBatchWriter {
+
+    private static final int MAX_BIND_PARAMETERS = Short.MAX_VALUE;
+
+    private static final int PRICE_COLUMNS = 4;
+
+    private static final String UPSERT_PRICES_SQL = """
+            WITH batch (pharmacy_id, medicine_id, price, external_id) AS (VALUES %s),
+            history AS (
+                INSERT INTO price_history (medicine_id, pharmacy_id, price)
+                SELECT b.medicine_id, b.pharmacy_id, b.price
+                FROM batch b
+                LEFT JOIN prices p ON p.pharmacy_id = b.pharmacy_id AND p.medicine_id = b.medicine_id
+                WHERE p.price IS DISTINCT FROM b.price
+                ON CONFLICT DO NOTHING
+            )
+            INSERT INTO prices (pharmacy_id, medicine_id, price, external_id)
+            SELECT pharmacy_id, medicine_id, price, external_id FROM batch
+            ON CONFLICT (pharmacy_id, medicine_id) DO UPDATE
+            SET price = EXCLUDED.price,
+                external_id = EXCLUDED.external_id,
+                updated_at = now()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final IdResolver idResolver;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final IngestionExecutors ingestionExecutors;
+
+    @Value("${pharmagator.ingestion.batch-size}")
+    private int batchSize;
+
+    @Value("${pharmagator.ingestion.writer-concurrency}")
+    private int writerConcurrency;
+
+    public Mono<Long> write(Flux<CrawlItem> items) {
+        return items
+                .buffer(batchSize)
+                .flatMapSequential(chunk -> Mono.fromCallable(() -> Tuples.of(chunk, (long) writeChunk(medicines(chunk))))
+                        .subscribeOn(ingestionExecutors.writerScheduler()), writerConcurrency)
+                .doOnNext(written -> runCheckpoints(written.getT1()))
+                .map(Tuple2::getT2)
+                .reduce(0L, Long::sum);
+    }
+
+    public long write(Stream<CrawlItem> items) {
+        long written = 0;
+        List<CrawlItem> chunk = new ArrayList<>(batchSize);
+        Iterator<CrawlItem> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == batchSize) {
+                written += writeChunk(medicines(chunk));
+                runCheckpoints(chunk);
+                chunk = new ArrayList<>(batchSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            written += writeChunk(medicines(chunk));
+            runCheckpoints(chunk);
+        }
+        return written;
+    }
+
+    public int writeChunk(List<MedicineDto> medicines) {
+        List<MedicineDto> valid = medicines.stream()
+                .filter(dto -> dto.getTitle() != null && dto.getPrice() != null && dto.getPharmacyName() != null)
+                .collect(Collectors.toList());
+        if (valid.size() < medicines.size()) {
+            log.debug("Skipped {} medicines without title, price or pharmacy", medicines.size() - valid.size());
+        }
+        if (valid.isEmpty()) {
+            return 0;
+        }
+        Map<String, Long> pharmacyIds = idResolver.resolvePharmacyIds(
+                valid.stream().map(MedicineDto::getPharmacyName).collect(Collectors.toSet()));
+        Map<String, Long> medicineIds = idResolver.resolveMedicineIds(valid.stream()
+                .collect(Collectors.groupingBy(MedicineDto::getTitle, Collectors.mapping(
+                        dto -> new Sku(pharmacyIds.get(dto.getPharmacyName()), dto.getExternalId()),
+                        Collectors.toSet()))));
+
+        Map<PriceId, Price> prices = new LinkedHashMap<>();
+        valid.forEach(dto -> {
+            Price price = Price.builder()
+                    .pharmacyId(pharmacyIds.get(dto.getPharmacyName()))
+                    .medicineId(medicineIds.get(dto.getTitle()))
+                    .price(dto.getPrice())
+                    .externalId(dto.getExternalId())
+                    .build();
+            prices.put(new PriceId(price.getPharmacyId(), price.getMedicineId()), price);
+        });
+
+        Integer written = transactionTemplate.execute(status -> upsertPrices(new ArrayList<>(prices.values())));
+        return written == null ? 0 : written;
+    }
+
+    private static List<MedicineDto> medicines(List<CrawlItem> chunk) {
+        return chunk.stream()
+                .filter(CrawlItem.Medicine.class::isInstance)
+                .map(item -> ((CrawlItem.Medicine) item).dto())
+                .collect(Collectors.toList());
+    }
+
+    private static void runCheckpoints(List<CrawlItem> chunk) {
+        chunk.stream()
+                .filter(CrawlItem.Checkpoint.class::isInstance)
+                .forEach(item -> ((CrawlItem.Checkpoint) item).commit().run());
+    }
+
+    private int upsertPrices(List<Price> prices) {
+        int written = 0;
+        for (List<Price> part : partition(prices, MAX_BIND_PARAMETERS / PRICE_COLUMNS)) {
+            Object[] args = new Object[part.size() * PRICE_COLUMNS];
+            int i = 0;
+            for (Price price : part) {
+                args[i++] = price.getPharmacyId();
+                args[i++] = price.getMedicineId();
+                args[i++] = price.getPrice();
+                args[i++] = price.getExternalId();
+            }
+            written += jdbcTemplate.update(UPSERT_PRICES_SQL.formatted(values(part.size(), PRICE_COLUMNS)), args);
+        }
+        return written;
+    }
+
+    private static String values(int rows, int columns) {
+        String row = "(" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+        return String.join(", ", Collections.nCopies(rows, row));
+    }
+
+    private static <T> List<List<T>> partition(List<T> list, int size) {
+        List<List<T>> parts = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += size) {
+            parts.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return parts;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PriceChangeDetector {
+
+    private static final int PRICE_SCALE = 2;
+
+    private static final String FINGERPRINTS_SQL = """
+            SELECT ph.name, pr.external_id, pr.price
+            FROM prices pr
+            JOIN pharmacies ph ON ph.id = pr.pharmacy_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Map<String, Long>> fingerprints = new ConcurrentHashMap<>();
+
+    private final LongAdder changed = new LongAdder();
+
+    private final LongAdder unchanged = new LongAdder();
+
+    public void load() {
+        fingerprints.clear();
+        changed.reset();
+        unchanged.reset();
+        jdbcTemplate.query(FINGERPRINTS_SQL, rs -> {
+            pharmacyFingerprints(rs.getString(1))
+                    .put(rs.getString(2), cents(rs.getBigDecimal(3)));
+        });
+        log.info("Price change detector loaded {} prices",
+                fingerprints.values().stream().mapToInt(Map::size).sum());
+    }
+
+    public boolean isChanged(MedicineDto dto) {
+        if (dto.getPharmacyName() == null || dto.getExternalId() == null || dto.getPrice() == null) {
+            return true;
+        }
+        long cents = cents(dto.getPrice());
+        Long previous = pharmacyFingerprints(dto.getPharmacyName()).put(dto.getExternalId(), cents);
+        if (previous != null && previous == cents) {
+            unchanged.increment();
+            return false;
+        }
+        changed.increment();
+        return true;
+    }
+
+    public long getChanged() {
+        return changed.sum();
+    }
+
+    public long getUnchanged() {
+        return unchanged.sum();
+    }
+
+    public void logStatistics() {
+        log.info("Price change detector statistics: {} changed, {} unchanged", getChanged(), getUnchanged());
+    }
+
+    private Map<String, Long> pharmacyFingerprints(String pharmacyName) {
+        return fingerprints.computeIfAbsent(pharmacyName, name -> new ConcurrentHashMap<>());
+    }
+
+    private static long cents(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PriceHistoryPartitions {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("price_history_(\\d{4})_(\\d{2})");
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = 'price_history'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${pharmagator.price-history.retention}")
+    private Duration retention;
+
+    @Value("${pharmagator.price-history.precreated-months}")
+    private int precreatedMonths;
+
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int month = 0; month <= precreatedMonths; month++) {
+            jdbcTemplate.queryForObject("SELECT create_price_history_partition(?)", String.class,
+                    today.plusMonths(month));
+        }
+
+        Instant cutoff = Instant.now().minus(retention);
+        List<String> partitions = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().isAfter(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped price history partition {} older than {}", partition, retention);
+            }
+        }
+        int expired = jdbcTemplate.update("DELETE FROM price_history_default WHERE recorded_at < ?",
+                Timestamp.from(cutoff));
+        if (expired > 0) {
+            log.info("Deleted {} price history rows older than {} from the default partition", expired, retention);
+        }
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+}
@@ -0,0 +1,4 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+public record Sku(long pharmacyId, String externalId) {
+}
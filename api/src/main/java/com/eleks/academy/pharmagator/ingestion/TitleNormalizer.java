@@ -0,0 +1,37 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class TitleNormalizer {
+
+    private static final Pattern TOKEN = Pattern.compile("\\p{Nd}+(?:[.,]\\p{Nd}+)?|\\p{L}+");
+
+    private TitleNormalizer() {
+    }
+
+    public static List<String> tokens(String title) {
+        String normalized = Normalizer.normalize(title.replace('№', ' '), Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replace('ё', 'е');
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(normalized);
+        while (matcher.find()) {
+            tokens.add(matcher.group().replace(',', '.'));
+        }
+        return tokens;
+    }
+
+    public static String normalize(String title) {
+        return String.join(" ", tokens(title));
+    }
+
+    static boolean isNumber(String token) {
+        return Character.isDigit(token.charAt(0));
+    }
+
+}
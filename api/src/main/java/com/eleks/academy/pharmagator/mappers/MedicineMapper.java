@@ -0,0 +1,20 @@
+package com.eleks.academy.pharmagator.mappers;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.input.MedicineDto;
+import com.eleks.academy.pharmagator.entities.Medicine;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MedicineMapper {
+
+    public MedicineDto toDto(Medicine medicine) {
+        return new MedicineDto(medicine.getTitle());
+    }
+
+    public Medicine toEntity(MedicineDto medicineDto) {
+        return Medicine.builder()
+                .title(medicineDto.getTitle())
+                .build();
+    }
+
+}
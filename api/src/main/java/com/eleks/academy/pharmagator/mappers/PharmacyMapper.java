@@ -0,0 +1,21 @@
+package com.eleks.academy.pharmagator.mappers;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.input.PharmacyDto;
+import com.eleks.academy.pharmagator.entities.Pharmacy;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PharmacyMapper {
+
+    public PharmacyDto toDto(Pharmacy pharmacy) {
+        return new PharmacyDto(pharmacy.getName(), pharmacy.getMedicineLinkTemplate());
+    }
+
+    public Pharmacy toEntity(PharmacyDto pharmacyDto) {
+        Pharmacy pharmacy = new Pharmacy();
+        pharmacy.setName(pharmacyDto.getName());
+        pharmacy.setMedicineLinkTemplate(pharmacyDto.getMedicineLinkTemplate());
+        return pharmacy;
+    }
+
+}
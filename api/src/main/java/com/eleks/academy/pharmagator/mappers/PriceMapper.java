@@ -0,0 +1,23 @@
+package com.eleks.academy.pharmagator.mappers;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.input.PriceDto;
+import com.eleks.academy.pharmagator.entities.Price;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PriceMapper {
+
+    public PriceDto toDto(Price price) {
+        return new PriceDto(price.getPrice(), price.getExternalId());
+    }
+
+    public Price toEntity(PriceDto priceDto, Long pharmacyId, Long medicineId) {
+        return Price.builder()
+                .pharmacyId(pharmacyId)
+                .medicineId(medicineId)
+                .price(priceDto.getPrice())
+                .externalId(priceDto.getExternalId())
+                .build();
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.eleks.academy.pharmagator.projections;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface PriceHistoryPoint {
+
+    Long getPharmacyId();
+
+    BigDecimal getPrice();
+
+    Instant getRecordedAt();
+
+}
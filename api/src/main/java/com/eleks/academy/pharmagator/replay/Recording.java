@@ -0,0 +1,26 @@
+package com.eleks.academy.pharmagator.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Recording {
+
+    private String method;
+
+    private String uri;
+
+    private String requestBody;
+
+    private int status;
+
+    private String contentType;
+
+    private String body;
+
+}
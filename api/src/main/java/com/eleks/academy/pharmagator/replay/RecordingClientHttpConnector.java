@@ -0,0 +1,77 @@
+package com.eleks.academy.pharmagator.replay;
+
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ClientHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.Function;
+
+@RequiredArgsConstructor
+public class RecordingClientHttpConnector implements ClientHttpConnector {
+
+    private final ClientHttpConnector delegate;
+
+    private final String provider;
+
+    private final RecordingStore recordingStore;
+
+    @Override
+    public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                            Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+        ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+        return delegate.connect(method, uri, request -> requestCallback.apply(new ClientHttpRequestDecorator(request) {
+                    @Override
+                    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                        return super.writeWith(Flux.from(body).doOnNext(buffer -> copy(buffer, requestBody)));
+                    }
+                }))
+                .map(response -> new ClientHttpResponseDecorator(response) {
+                    @Override
+                    public Flux<DataBuffer> getBody() {
+                        ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+                        return super.getBody()
+                                .doOnNext(buffer -> copy(buffer, responseBody))
+                                .doOnComplete(() -> {
+                                    if (getRawStatusCode() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                                        return;
+                                    }
+                                    recordingStore.save(provider, Recording.builder()
+                                            .method(method.name())
+                                            .uri(uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()))
+                                            .requestBody(requestBody.toString(StandardCharsets.UTF_8))
+                                            .status(getRawStatusCode())
+                                            .contentType(Optional.ofNullable(getHeaders().getContentType())
+                                                    .map(MediaType::toString)
+                                                    .orElse(null))
+                                            .body(responseBody.toString(StandardCharsets.UTF_8))
+                                            .build());
+                                });
+                    }
+                });
+    }
+
+    private static void copy(DataBuffer buffer, ByteArrayOutputStream target) {
+        ByteBuffer byteBuffer = buffer.asByteBuffer();
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+        synchronized (target) {
+            target.writeBytes(bytes);
+        }
+    }
+
+}
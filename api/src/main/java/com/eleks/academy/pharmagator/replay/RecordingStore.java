@@ -0,0 +1,53 @@
+package com.eleks.academy.pharmagator.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class RecordingStore {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${pharmagator.replay.directory}")
+    private Path directory;
+
+    public void save(String provider, Recording recording) {
+        Path file = file(provider, recording.getMethod(), recording.getUri(), recording.getRequestBody());
+        try {
+            Files.createDirectories(file.getParent());
+            objectMapper.writeValue(file.toFile(), recording);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Optional<Recording> find(String provider, String method, String uri, String requestBody) {
+        Path file = file(provider, method, uri, requestBody);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file.toFile(), Recording.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path file(String provider, String method, String uri, String requestBody) {
+        String key = method + " " + uri + "\n" + (requestBody == null ? "" : requestBody);
+        return directory.resolve(provider)
+                .resolve(DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + ".json");
+    }
+
+}
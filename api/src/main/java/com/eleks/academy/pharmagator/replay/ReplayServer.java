@@ -0,0 +1,90 @@
+package com.eleks.academy.pharmagator.replay;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@RequiredArgsConstructor
+public class ReplayServer {
+
+    private final RecordingStore recordingStore;
+
+    private final int port;
+
+    private final Duration latency;
+
+    private final double errorRate;
+
+    private final int errorStatus;
+
+    private final Random random;
+
+    private final Map<String, Recording> recordings = new ConcurrentHashMap<>();
+
+    private DisposableServer server;
+
+    public void start() {
+        server = HttpServer.create()
+                .port(port)
+                .compress(true)
+                .handle((request, response) -> request.receive()
+                        .aggregate()
+                        .asString(StandardCharsets.UTF_8)
+                        .defaultIfEmpty("")
+                        .flatMap(requestBody -> Mono.delay(latency).then(respond(request, response, requestBody))))
+                .bindNow();
+        log.info("Replay server listening on port {}", server.port());
+    }
+
+    public int getPort() {
+        return server.port();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    private Mono<Void> respond(HttpServerRequest request, HttpServerResponse response, String requestBody) {
+        String uri = request.uri();
+        int providerEnd = uri.indexOf('/', 1);
+        if (providerEnd < 0) {
+            return response.status(HttpStatus.NOT_FOUND.value()).send();
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            return response.status(errorStatus).send();
+        }
+        String provider = uri.substring(1, providerEnd);
+        String method = request.method().name();
+        String path = uri.substring(providerEnd);
+        String key = provider + " " + method + " " + path + "\n" + requestBody;
+        Recording recording = recordings.computeIfAbsent(key,
+                ignored -> recordingStore.find(provider, method, path, requestBody).orElse(null));
+        if (recording == null) {
+            log.warn("No recording for {} {}", method, uri);
+            return response.status(HttpStatus.NOT_FOUND.value()).send();
+        }
+        return response.status(recording.getStatus())
+                .header(HttpHeaders.CONTENT_TYPE, Objects.requireNonNullElse(recording.getContentType(),
+                        MediaType.APPLICATION_JSON_VALUE))
+                .sendString(Mono.just(recording.getBody()), StandardCharsets.UTF_8)
+                .then();
+    }
+
+}
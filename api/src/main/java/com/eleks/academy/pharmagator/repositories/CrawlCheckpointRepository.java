@@ -0,0 +1,19 @@
+package com.eleks.academy.pharmagator.repositories;
+
+import com.eleks.academy.pharmagator.entities.CrawlCheckpoint;
+import com.eleks.academy.pharmagator.entities.CrawlCheckpointId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface CrawlCheckpointRepository extends JpaRepository<CrawlCheckpoint, CrawlCheckpointId> {
+
+    List<CrawlCheckpoint> findAllByProvider(String provider);
+
+    @Transactional
+    void deleteAllByProvider(String provider);
+
+}
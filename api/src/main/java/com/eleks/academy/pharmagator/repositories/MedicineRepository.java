@@ -1,12 +1,40 @@
 package com.eleks.academy.pharmagator.repositories;
 
 import com.eleks.academy.pharmagator.entities.Medicine;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface MedicineRepository extends JpaRepository<Medicine, Long> {
 
     Optional<Medicine> findByTitle(String title);
 
+    List<Medicine> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Medicine> findByTitleNotNullOrderByTitleAscIdAsc(Pageable pageable);
+
+    List<Medicine> findByTitleNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query(value = """
+            SELECT * FROM medicines
+            WHERE (title, id) > (:title, :id)
+            ORDER BY title, id
+            """, nativeQuery = true)
+    List<Medicine> findPageAfterTitle(@Param("title") String title,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    @Transactional
+    @Query(value = """
+            INSERT INTO medicines (title) VALUES (:title)
+            ON CONFLICT (title) DO UPDATE SET title = EXCLUDED.title
+            RETURNING id
+            """, nativeQuery = true)
+    Long findOrCreateIdByTitle(@Param("title") String title);
+
 }
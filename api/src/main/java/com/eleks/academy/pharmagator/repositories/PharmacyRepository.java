@@ -2,9 +2,12 @@ package com.eleks.academy.pharmagator.repositories;
 
 import com.eleks.academy.pharmagator.entities.Pharmacy;
 import com.eleks.academy.pharmagator.projections.PharmacyLight;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,4 +20,25 @@ public interface PharmacyRepository extends JpaRepository<Pharmacy, Long> {
 
     Optional<Pharmacy> findByName(String name);
 
+    List<Pharmacy> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Pharmacy> findAllByOrderByNameAscIdAsc(Pageable pageable);
+
+    @Query(value = """
+            SELECT * FROM pharmacies
+            WHERE (name, id) > (:name, :id)
+            ORDER BY name, id
+            """, nativeQuery = true)
+    List<Pharmacy> findPageAfterName(@Param("name") String name,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Transactional
+    @Query(value = """
+            INSERT INTO pharmacies (name) VALUES (:name)
+            ON CONFLICT (name) DO UPDATE SET name = EXCLUDED.name
+            RETURNING id
+            """, nativeQuery = true)
+    Long findOrCreateIdByName(@Param("name") String name);
+
 }
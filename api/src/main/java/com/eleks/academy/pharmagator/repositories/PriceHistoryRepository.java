@@ -0,0 +1,25 @@
+package com.eleks.academy.pharmagator.repositories;
+
+import com.eleks.academy.pharmagator.entities.PriceHistory;
+import com.eleks.academy.pharmagator.entities.PriceHistoryId;
+import com.eleks.academy.pharmagator.projections.PriceHistoryPoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface PriceHistoryRepository extends JpaRepository<PriceHistory, PriceHistoryId> {
+
+    @Query("""
+            SELECT h.pharmacyId as pharmacyId, h.price as price, h.recordedAt as recordedAt
+            FROM PriceHistory h
+            WHERE h.medicineId = :medicineId AND h.recordedAt >= :from AND h.recordedAt < :to
+            ORDER BY h.recordedAt, h.pharmacyId
+            """)
+    List<PriceHistoryPoint> findAllByMedicineId(@Param("medicineId") Long medicineId,
+                                                @Param("from") Instant from,
+                                                @Param("to") Instant to);
+
+}
@@ -3,16 +3,49 @@ package com.eleks.academy.pharmagator.repositories;
 import com.eleks.academy.pharmagator.entities.Price;
 import com.eleks.academy.pharmagator.entities.PriceId;
 import com.eleks.academy.pharmagator.projections.MedicinePrice;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface PriceRepository extends JpaRepository<Price, PriceId> {
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
     @Query("""
             SELECT p.price as price, m.title as title, p.pharmacyId as pharmacyId
             FROM Price p
-            LEFT JOIN Medicine m ON m.id = p.medicineId
+            JOIN Medicine m ON m.id = p.medicineId
+            ORDER BY m.title, p.pharmacyId
             """)
-    List<MedicinePrice> findAllMedicinesPrices();
+    Stream<MedicinePrice> streamAllMedicinesPrices();
+
+    List<Price> findAllByOrderByPharmacyIdAscMedicineIdAsc(Pageable pageable);
+
+    List<Price> findAllByOrderByUpdatedAtAscPharmacyIdAscMedicineIdAsc(Pageable pageable);
+
+    @Query(value = """
+            SELECT * FROM prices
+            WHERE (pharmacy_id, medicine_id) > (:pharmacyId, :medicineId)
+            ORDER BY pharmacy_id, medicine_id
+            """, nativeQuery = true)
+    List<Price> findPageAfterId(@Param("pharmacyId") Long pharmacyId,
+                                @Param("medicineId") Long medicineId,
+                                Pageable pageable);
+
+    @Query(value = """
+            SELECT * FROM prices
+            WHERE (updated_at, pharmacy_id, medicine_id) > (:updatedAt, :pharmacyId, :medicineId)
+            ORDER BY updated_at, pharmacy_id, medicine_id
+            """, nativeQuery = true)
+    List<Price> findPageAfterUpdatedAt(@Param("updatedAt") Instant updatedAt,
+                                       @Param("pharmacyId") Long pharmacyId,
+                                       @Param("medicineId") Long medicineId,
+                                       Pageable pageable);
 }
@@ -1,22 +1,26 @@
 package com.eleks.academy.pharmagator.scheduler;
 
+import com.eleks.academy.pharmagator.dataproviders.CrawlItem;
 import com.eleks.academy.pharmagator.dataproviders.DataProvider;
-import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
-import com.eleks.academy.pharmagator.entities.Medicine;
-import com.eleks.academy.pharmagator.entities.Pharmacy;
-import com.eleks.academy.pharmagator.entities.Price;
-import com.eleks.academy.pharmagator.repositories.MedicineRepository;
-import com.eleks.academy.pharmagator.repositories.PharmacyRepository;
-import com.eleks.academy.pharmagator.repositories.PriceRepository;
+import com.eleks.academy.pharmagator.dataproviders.ReactiveDataProvider;
+import com.eleks.academy.pharmagator.ingestion.CopyBulkLoader;
+import com.eleks.academy.pharmagator.ingestion.IdResolver;
+import com.eleks.academy.pharmagator.ingestion.IngestionExecutors;
+import com.eleks.academy.pharmagator.ingestion.IngestionMode;
+import com.eleks.academy.pharmagator.ingestion.PriceBatchWriter;
+import com.eleks.academy.pharmagator.ingestion.PriceChangeDetector;
+import com.eleks.academy.pharmagator.ingestion.PriceHistoryPartitions;
+import com.eleks.academy.pharmagator.services.ExportArtifacts;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 
 import java.time.Instant;
-import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -25,43 +29,65 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class Scheduler {
 
-    private final List<DataProvider> dataProviderList;
+    private final Map<String, DataProvider> dataProviders;
 
-    private final PriceRepository priceRepository;
+    private final IdResolver idResolver;
 
-    private final PharmacyRepository pharmacyRepository;
+    private final PriceChangeDetector priceChangeDetector;
 
-    private final MedicineRepository medicineRepository;
+    private final PriceBatchWriter priceBatchWriter;
 
-    private final ModelMapper modelMapper;
+    private final CopyBulkLoader copyBulkLoader;
+
+    private final IngestionExecutors ingestionExecutors;
+
+    private final PriceHistoryPartitions priceHistoryPartitions;
+
+    private final ExportArtifacts exportArtifacts;
+
+    @Value("${pharmagator.ingestion.mode}")
+    private IngestionMode ingestionMode;
 
     @Scheduled(fixedDelay = 100, timeUnit = TimeUnit.MINUTES)
     public void schedule() {
-        log.info("Scheduler started at {}", Instant.now());
-        dataProviderList.parallelStream()
-                .flatMap(DataProvider::loadData)
-                .forEach(this::storeToDatabase);
-        log.info("Scheduler finished at {}", Instant.now());
+        log.info("Scheduler started at {} in {} mode", Instant.now(), ingestionMode);
+        priceHistoryPartitions.maintain();
+        long stored = switch (ingestionMode) {
+            case BATCH -> storeInBatches();
+            case COPY -> copyBulkLoader.load(loadData().toStream());
+        };
+        log.info("Scheduler finished at {}, stored {} prices", Instant.now(), stored);
+        exportArtifacts.refresh();
     }
 
-    private void storeToDatabase(MedicineDto dto) {
-        Medicine medicine = modelMapper.map(dto, Medicine.class);
-        Price price = modelMapper.map(dto, Price.class);
+    private long storeInBatches() {
+        idResolver.warmUp();
+        priceChangeDetector.load();
+        Long stored = priceBatchWriter.write(loadData().filter(this::isChanged))
+                .block();
+        idResolver.logStatistics();
+        priceChangeDetector.logStatistics();
+        return stored == null ? 0 : stored;
+    }
 
-        String pharmacyName = dto.getPharmacyName();
-        Pharmacy pharmacyFromDb = pharmacyRepository.findByName(pharmacyName).orElseGet(() -> {
-            Pharmacy pharmacy = new Pharmacy();
-            pharmacy.setName(pharmacyName);
-            return pharmacyRepository.save(pharmacy);
-        });
+    private boolean isChanged(CrawlItem item) {
+        return !(item instanceof CrawlItem.Medicine medicine) || priceChangeDetector.isChanged(medicine.dto());
+    }
 
-        Medicine medicineFromDb = medicineRepository.findByTitle(medicine.getTitle()).orElseGet(() -> medicineRepository.save(medicine));
+    private Flux<CrawlItem> loadData() {
+        return Flux.fromIterable(dataProviders.entrySet())
+                .flatMap(entry -> loadData(entry.getKey(), entry.getValue()), dataProviders.size());
+    }
 
-        price.setMedicineId(medicineFromDb.getId());
-        price.setPharmacyId(pharmacyFromDb.getId());
-        price.setUpdatedAt(Instant.now());
-        price.setExternalId(dto.getExternalId());
-        priceRepository.save(price);
+    private Flux<CrawlItem> loadData(String dataProviderName, DataProvider dataProvider) {
+        var fetchScheduler = ingestionExecutors.fetchScheduler(dataProviderName);
+        return ReactiveDataProvider.adapt(dataProvider, fetchScheduler)
+                .loadFlux()
+                .publishOn(fetchScheduler)
+                .onErrorResume(e -> {
+                    log.error("Data provider {} failed, keeping prices fetched so far", dataProviderName, e);
+                    return Flux.empty();
+                });
     }
 
 }
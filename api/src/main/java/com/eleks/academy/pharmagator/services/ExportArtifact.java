@@ -0,0 +1,7 @@
+package com.eleks.academy.pharmagator.services;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+public record ExportArtifact(Path path, long length, Instant lastModified, String eTag) {
+}
@@ -0,0 +1,126 @@
+package com.eleks.academy.pharmagator.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExportArtifacts {
+
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private static final String STAGING_SUFFIX = ".tmp";
+
+    private static final int KEPT_GENERATIONS = 2;
+
+    private final ExportService exportService;
+
+    @Value("${pharmagator.export.artifacts.directory}")
+    private Path directory;
+
+    private volatile Path generation;
+
+    public void refresh() {
+        long id = System.currentTimeMillis();
+        Path staging = directory.resolve(id + STAGING_SUFFIX);
+        try {
+            Files.createDirectories(staging);
+            for (ExportFormat format : ExportFormat.values()) {
+                Path file = staging.resolve(format.getFileName());
+                try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file))) {
+                    exportService.export(format, outputStream);
+                }
+                if (format.isCompressible()) {
+                    try (OutputStream outputStream = new GZIPOutputStream(
+                            Files.newOutputStream(staging.resolve(format.getFileName() + GZIP_SUFFIX)), 64 * 1024)) {
+                        Files.copy(file, outputStream);
+                    }
+                }
+            }
+            Path target = directory.resolve(String.valueOf(id));
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            generation = target;
+            log.info("Export artifacts generated in {} ms", System.currentTimeMillis() - id);
+            deleteOldGenerations();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate export artifacts, keeping generation {}", generation, e);
+            deleteQuietly(staging);
+        }
+    }
+
+    public Optional<ExportArtifact> find(ExportFormat format, boolean gzip) {
+        Path current = currentGeneration();
+        if (current == null) {
+            return Optional.empty();
+        }
+        String fileName = format.getFileName() + (gzip ? GZIP_SUFFIX : "");
+        Path file = current.resolve(fileName);
+        try {
+            long length = Files.size(file);
+            String id = current.getFileName().toString();
+            return Optional.of(new ExportArtifact(file, length, Instant.ofEpochMilli(Long.parseLong(id)),
+                    "\"" + id + "-" + fileName + "\""));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Path currentGeneration() {
+        if (generation == null) {
+            synchronized (this) {
+                if (generation == null) {
+                    generation = generations().stream().findFirst().orElse(null);
+                }
+            }
+        }
+        return generation;
+    }
+
+    private List<Path> generations() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths
+                    .filter(path -> Files.isDirectory(path) && path.getFileName().toString().matches("\\d+"))
+                    .sorted(Comparator.comparing((Path path) -> Long.parseLong(path.getFileName().toString())).reversed())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Failed to list export artifacts in {}", directory, e);
+            return List.of();
+        }
+    }
+
+    private void deleteOldGenerations() {
+        generations().stream()
+                .skip(KEPT_GENERATIONS)
+                .forEach(this::deleteQuietly);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            FileSystemUtils.deleteRecursively(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}", path, e);
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.eleks.academy.pharmagator.services;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+
+    XLSX(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"), "xlsx", false),
+
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv", true),
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson", true);
+
+    private final MediaType mediaType;
+
+    private final String extension;
+
+    private final boolean compressible;
+
+    public String getFileName() {
+        return "export." + extension;
+    }
+
+    public static Optional<ExportFormat> fromExtension(String extension) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(extension)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static Optional<ExportFormat> negotiate(List<MediaType> acceptedTypes) {
+        List<MediaType> sorted = new ArrayList<>(acceptedTypes);
+        MediaType.sortBySpecificityAndQuality(sorted);
+        for (MediaType accepted : sorted) {
+            for (ExportFormat format : values()) {
+                if (accepted.isCompatibleWith(format.mediaType)) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.eleks.academy.pharmagator.services;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ExportJob(UUID id, ExportFormat format, ExportJobStatus status, Instant createdAt, Instant completedAt,
+                        String error) {
+
+    public ExportJob withStatus(ExportJobStatus status) {
+        boolean finished = status == ExportJobStatus.COMPLETED || status == ExportJobStatus.FAILED;
+        return new ExportJob(id, format, status, createdAt, finished ? Instant.now() : completedAt, error);
+    }
+
+    public ExportJob failed(String error) {
+        return new ExportJob(id, format, ExportJobStatus.FAILED, createdAt, Instant.now(), error);
+    }
+
+}
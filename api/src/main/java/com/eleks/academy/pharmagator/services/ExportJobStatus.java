@@ -0,0 +1,8 @@
+package com.eleks.academy.pharmagator.services;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
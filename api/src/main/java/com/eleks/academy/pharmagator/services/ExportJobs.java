@@ -0,0 +1,160 @@
+package com.eleks.academy.pharmagator.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExportJobs implements InitializingBean, DisposableBean {
+
+    private static final String NAME = "export-worker";
+
+    private final ExportService exportService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${pharmagator.export.jobs.directory}")
+    private Path directory;
+
+    @Value("${pharmagator.export.jobs.threads}")
+    private int threads;
+
+    @Value("${pharmagator.export.jobs.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${pharmagator.export.jobs.retention}")
+    private Duration retention;
+
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public void afterPropertiesSet() {
+        deleteOrphans();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(NAME + "-"));
+        executor.allowCoreThreadTimeOut(true);
+        new ExecutorServiceMetrics(executor, NAME, Tags.of("pool", "export")).bindTo(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    public ExportJob submit(ExportFormat format) {
+        ExportJob job = new ExportJob(UUID.randomUUID(), format, ExportJobStatus.QUEUED, Instant.now(), null, null);
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ExportJob> find(UUID id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public Optional<ExportArtifact> result(UUID id) {
+        return find(id)
+                .filter(job -> job.status() == ExportJobStatus.COMPLETED)
+                .flatMap(job -> {
+                    Path file = file(job);
+                    try {
+                        return Optional.of(new ExportArtifact(file, Files.size(file), job.completedAt(),
+                                "\"" + job.id() + "\""));
+                    } catch (IOException e) {
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    private void run(ExportJob job) {
+        update(job.id(), ExportJobStatus.RUNNING);
+        Path file = file(job);
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file))) {
+                exportService.export(job.format(), outputStream);
+            }
+            update(job.id(), ExportJobStatus.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            log.error("Export job {} failed", job.id(), e);
+            jobs.computeIfPresent(job.id(), (key, current) -> current.failed(Objects.toString(e.getMessage(),
+                    e.getClass().getSimpleName())));
+            deleteQuietly(file);
+        }
+    }
+
+    private void update(UUID id, ExportJobStatus status) {
+        jobs.computeIfPresent(id, (key, job) -> job.withStatus(status));
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evictExpired() {
+        Instant expiredBefore = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.completedAt() != null && job.completedAt().isBefore(expiredBefore);
+            if (expired) {
+                deleteQuietly(file(job));
+            }
+            return expired;
+        });
+    }
+
+    private void deleteOrphans() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Files::isRegularFile).forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Failed to clean up {}", directory, e);
+        }
+    }
+
+    private Path file(ExportJob job) {
+        return directory.resolve(job.id() + "." + job.format().getExtension());
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}", file, e);
+        }
+    }
+
+}
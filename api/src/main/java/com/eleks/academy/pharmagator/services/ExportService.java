@@ -4,78 +4,180 @@ import com.eleks.academy.pharmagator.entities.Pharmacy;
 import com.eleks.academy.pharmagator.projections.MedicinePrice;
 import com.eleks.academy.pharmagator.repositories.PharmacyRepository;
 import com.eleks.academy.pharmagator.repositories.PriceRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.*;
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Service
 public class ExportService {
     private final PriceRepository priceRepository;
     private final PharmacyRepository pharmacyRepository;
+    private final ObjectMapper objectMapper;
 
-    public XSSFWorkbook getExportData() {
-        Map<String, Map<Long, BigDecimal>> prices = priceRepository.findAllMedicinesPrices()
-                .stream()
-                .collect(Collectors.groupingBy(MedicinePrice::getTitle,
-                        Collectors.toMap(MedicinePrice::getPharmacyId, MedicinePrice::getPrice)));
+    @Value("${pharmagator.export.row-access-window}")
+    private int rowAccessWindow;
 
-        XSSFWorkbook workbook = new XSSFWorkbook();
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream outputStream) throws IOException {
+        List<Pharmacy> pharmacies = pharmacyRepository.findAll();
+        switch (format) {
+            case XLSX -> exportXlsx(pharmacies, outputStream);
+            case CSV -> exportCsv(pharmacies, outputStream);
+            case NDJSON -> exportNdjson(pharmacies, outputStream);
+        }
+    }
 
-        XSSFSheet sheet = workbook.createSheet();
+    private void exportXlsx(List<Pharmacy> pharmacies, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindow);
+        workbook.setCompressTempFiles(true);
 
-        XSSFCellStyle headerStyle = createHeaderStyle(workbook);
-        XSSFCellStyle firstColumnStyle = createFirstColumnStyle(workbook);
+        try {
+            SXSSFSheet sheet = workbook.createSheet();
 
-        sheet.setColumnWidth(0, 20000);
+            CellStyle headerStyle = createHeaderStyle(workbook);
+            CellStyle firstColumnStyle = createFirstColumnStyle(workbook);
 
-        XSSFRow header = sheet.createRow(0);
+            sheet.setColumnWidth(0, 20000);
 
-        AtomicInteger cellIndex = new AtomicInteger(1);
-        AtomicInteger rowIndex = new AtomicInteger(1);
+            SXSSFRow header = sheet.createRow(0);
 
-        List<Pharmacy> pharmacies = pharmacyRepository.findAll();
+            for (int i = 0; i < pharmacies.size(); i++) {
+                buildHeaderCell(sheet, headerStyle, header, i + 1, pharmacies.get(i));
+            }
 
-        HashMap<Long, Integer> pharmacyColumnMapping = new HashMap<>(pharmacies.size());
+            AtomicInteger rowIndex = new AtomicInteger(1);
 
-        pharmacies.forEach(pharmacy -> buildHeaderCell(sheet, headerStyle, header, cellIndex, pharmacyColumnMapping, pharmacy));
+            int rows = writeRows(pharmacies, (medicineTitle, prices) ->
+                    buildMedicineRow(sheet, firstColumnStyle, rowIndex, medicineTitle, prices));
 
-        prices.forEach((medicineTitle, phs) -> buildMedicineRow(sheet, firstColumnStyle, rowIndex, pharmacyColumnMapping, medicineTitle, phs));
+            setupConditionalFormatting(sheet, pharmacies.size(), rows);
+
+            workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void exportCsv(List<Pharmacy> pharmacies, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        writer.write("medicine");
+        for (Pharmacy pharmacy : pharmacies) {
+            writer.write(',');
+            writer.write(escapeCsv(pharmacy.getName()));
+        }
+        writer.write("\r\n");
+
+        writeRows(pharmacies, (medicineTitle, prices) -> {
+            writer.write(escapeCsv(medicineTitle));
+            for (BigDecimal price : prices) {
+                writer.write(',');
+                if (price != null) {
+                    writer.write(price.toPlainString());
+                }
+            }
+            writer.write("\r\n");
+        });
+
+        writer.flush();
+    }
 
-        setupConditionalFormatting(prices, sheet);
+    private void exportNdjson(List<Pharmacy> pharmacies, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+
+            writeRows(pharmacies, (medicineTitle, prices) -> {
+                generator.writeStartObject();
+                generator.writeStringField("title", medicineTitle);
+                generator.writeObjectFieldStart("prices");
+                for (int i = 0; i < prices.length; i++) {
+                    if (prices[i] != null) {
+                        generator.writeNumberField(pharmacies.get(i).getName(), prices[i]);
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeEndObject();
+            });
+
+            generator.writeRaw('\n');
+        }
+    }
 
-        return workbook;
+    private int writeRows(List<Pharmacy> pharmacies, RowWriter rowWriter) throws IOException {
+        Map<Long, Integer> pharmacyColumnMapping = new HashMap<>(pharmacies.size());
+        for (int i = 0; i < pharmacies.size(); i++) {
+            pharmacyColumnMapping.put(pharmacies.get(i).getId(), i);
+        }
+
+        BigDecimal[] row = new BigDecimal[pharmacies.size()];
+        String medicineTitle = null;
+        int rows = 0;
+
+        try (Stream<MedicinePrice> prices = priceRepository.streamAllMedicinesPrices()) {
+            Iterator<MedicinePrice> iterator = prices.iterator();
+            while (iterator.hasNext()) {
+                MedicinePrice price = iterator.next();
+
+                if (!price.getTitle().equals(medicineTitle)) {
+                    if (medicineTitle != null) {
+                        rowWriter.write(medicineTitle, row);
+                        Arrays.fill(row, null);
+                        rows++;
+                    }
+                    medicineTitle = price.getTitle();
+                }
+
+                Integer column = pharmacyColumnMapping.get(price.getPharmacyId());
+                if (column != null) {
+                    row[column] = price.getPrice();
+                }
+            }
+        }
+
+        if (medicineTitle != null) {
+            rowWriter.write(medicineTitle, row);
+            rows++;
+        }
+        return rows;
     }
 
-    private void buildMedicineRow(XSSFSheet sheet, XSSFCellStyle firstColumnStyle, AtomicInteger rowIndex, HashMap<Long, Integer> pharmacyColumnMapping, String medicineTitle, Map<Long, BigDecimal> phs) {
-        XSSFRow row = sheet.createRow(rowIndex.getAndIncrement());
+    private void buildMedicineRow(SXSSFSheet sheet, CellStyle firstColumnStyle, AtomicInteger rowIndex, String medicineTitle, BigDecimal[] prices) {
+        SXSSFRow row = sheet.createRow(rowIndex.getAndIncrement());
 
-        XSSFCell medicineCell = row.createCell(0);
+        Cell medicineCell = row.createCell(0);
         medicineCell.setCellValue(medicineTitle);
 
         medicineCell.setCellStyle(firstColumnStyle);
 
-        phs.forEach((pharmacyId, price) -> {
-            XSSFCell cell = row.createCell(pharmacyColumnMapping.get(pharmacyId));
-            cell.setCellValue(price.doubleValue());
-        });
+        for (int i = 0; i < prices.length; i++) {
+            if (prices[i] != null) {
+                row.createCell(i + 1).setCellValue(prices[i].doubleValue());
+            }
+        }
     }
 
-    private void buildHeaderCell(XSSFSheet sheet, XSSFCellStyle headerStyle, XSSFRow header, AtomicInteger cellIndex, HashMap<Long, Integer> pharmacyColumnMapping, Pharmacy pharmacy) {
-        int index = cellIndex.getAndIncrement();
-
-        pharmacyColumnMapping.put(pharmacy.getId(), index);
-
-        XSSFCell cell = header.createCell(index);
+    private void buildHeaderCell(SXSSFSheet sheet, CellStyle headerStyle, SXSSFRow header, int index, Pharmacy pharmacy) {
+        Cell cell = header.createCell(index);
 
         sheet.setColumnWidth(index, 5000);
 
@@ -84,26 +186,32 @@ public class ExportService {
         cell.setCellStyle(headerStyle);
     }
 
-    private XSSFCellStyle createHeaderStyle(XSSFWorkbook workbook) {
-        XSSFCellStyle cellStyle = workbook.createCellStyle();
+    private CellStyle createHeaderStyle(Workbook workbook) {
+        CellStyle cellStyle = workbook.createCellStyle();
         cellStyle.setWrapText(true);
         cellStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
         cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         return cellStyle;
     }
 
-    private XSSFCellStyle createFirstColumnStyle(XSSFWorkbook workbook) {
-        XSSFCellStyle cellStyle = workbook.createCellStyle();
+    private CellStyle createFirstColumnStyle(Workbook workbook) {
+        CellStyle cellStyle = workbook.createCellStyle();
         cellStyle.setWrapText(true);
         cellStyle.setFillForegroundColor(IndexedColors.BLUE_GREY.getIndex());
         cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         return cellStyle;
     }
 
-    private void setupConditionalFormatting(Map<String, Map<Long, BigDecimal>> prices, XSSFSheet sheet) {
+    private void setupConditionalFormatting(Sheet sheet, int pharmacies, int rows) {
+        if (pharmacies == 0 || rows == 0) {
+            return;
+        }
+        String lastColumn = CellReference.convertNumToColString(pharmacies);
+
         SheetConditionalFormatting sheetCF = sheet.getSheetConditionalFormatting();
 
-        ConditionalFormattingRule rule = sheetCF.createConditionalFormattingRule("AND(ISNUMBER(B2), B2=MIN($B2:$Z2))");
+        ConditionalFormattingRule rule = sheetCF.createConditionalFormattingRule(
+                "AND(ISNUMBER(B2), B2=MIN($B2:$" + lastColumn + "2))");
         PatternFormatting fill = rule.createPatternFormatting();
         fill.setFillBackgroundColor(IndexedColors.RED.index);
         fill.setFillPattern(PatternFormatting.SOLID_FOREGROUND);
@@ -112,8 +220,20 @@ public class ExportService {
 
         ConditionalFormattingRule[] cfRules = new ConditionalFormattingRule[]{rule};
 
-        CellRangeAddress[] regions = new CellRangeAddress[]{CellRangeAddress.valueOf("B2:Z" + (prices.size() + 1))};
+        CellRangeAddress[] regions = new CellRangeAddress[]{CellRangeAddress.valueOf("B2:" + lastColumn + (rows + 1))};
 
         sheetCF.addConditionalFormatting(regions, cfRules);
     }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(String medicineTitle, BigDecimal[] prices) throws IOException;
+    }
 }
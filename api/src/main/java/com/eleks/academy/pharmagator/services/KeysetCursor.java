@@ -0,0 +1,30 @@
+package com.eleks.academy.pharmagator.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "\u0000";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Enum<?> sort, Object... keys) {
+        String value = Stream.concat(Stream.of(sort.name()), Arrays.stream(keys).map(String::valueOf))
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, Enum<?> sort, int keys) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        if (parts.length != keys + 1 || !parts[0].equals(sort.name())) {
+            throw new IllegalArgumentException("Cursor does not belong to " + sort + " ordering");
+        }
+        return Arrays.copyOfRange(parts, 1, parts.length);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.eleks.academy.pharmagator.services;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, String> cursor) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(items, cursor.apply(items.get(size - 1)));
+    }
+
+}
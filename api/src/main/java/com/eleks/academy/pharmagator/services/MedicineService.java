@@ -3,12 +3,11 @@ package com.eleks.academy.pharmagator.services;
 import com.eleks.academy.pharmagator.dataproviders.dto.input.MedicineDto;
 import com.eleks.academy.pharmagator.entities.Medicine;
 
-import java.util.List;
 import java.util.Optional;
 
 public interface MedicineService {
 
-    List<Medicine> findAll();
+    KeysetPage<Medicine> findPage(MedicineSort sort, String cursor, int size);
 
     Optional<Medicine> findById(Long id);
 
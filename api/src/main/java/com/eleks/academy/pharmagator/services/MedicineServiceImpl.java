@@ -2,12 +2,16 @@ package com.eleks.academy.pharmagator.services;
 
 import com.eleks.academy.pharmagator.dataproviders.dto.input.MedicineDto;
 import com.eleks.academy.pharmagator.entities.Medicine;
+import com.eleks.academy.pharmagator.mappers.MedicineMapper;
 import com.eleks.academy.pharmagator.repositories.MedicineRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -15,11 +19,45 @@ import java.util.Optional;
 public class MedicineServiceImpl implements MedicineService {
 
     private final MedicineRepository medicineRepository;
-    private final ModelMapper modelMapper;
+    private final MedicineMapper medicineMapper;
 
     @Override
-    public List<Medicine> findAll() {
-        return medicineRepository.findAll();
+    public KeysetPage<Medicine> findPage(MedicineSort sort, String cursor, int size) {
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<Medicine> medicines = switch (sort) {
+            case ID -> medicineRepository.findByIdGreaterThanOrderByIdAsc(
+                    cursor == null ? Long.MIN_VALUE : Long.parseLong(KeysetCursor.decode(cursor, sort, 1)[0]), limit);
+            case TITLE -> findPageByTitle(cursor, size + 1);
+        };
+        return KeysetPage.of(medicines, size, last -> switch (sort) {
+            case ID -> KeysetCursor.encode(sort, last.getId());
+            case TITLE -> KeysetCursor.encode(sort, last.getTitle() == null, Objects.toString(last.getTitle(), ""),
+                    last.getId());
+        });
+    }
+
+    private List<Medicine> findPageByTitle(String cursor, int limit) {
+        List<Medicine> medicines;
+        long afterUntitledId = Long.MIN_VALUE;
+        if (cursor == null) {
+            medicines = medicineRepository.findByTitleNotNullOrderByTitleAscIdAsc(PageRequest.ofSize(limit));
+        } else {
+            String[] keys = KeysetCursor.decode(cursor, MedicineSort.TITLE, 3);
+            long id = Long.parseLong(keys[2]);
+            if (Boolean.parseBoolean(keys[0])) {
+                medicines = List.of();
+                afterUntitledId = id;
+            } else {
+                medicines = medicineRepository.findPageAfterTitle(keys[1], id, PageRequest.ofSize(limit));
+            }
+        }
+        if (medicines.size() == limit) {
+            return medicines;
+        }
+        List<Medicine> page = new ArrayList<>(medicines);
+        page.addAll(medicineRepository.findByTitleNullAndIdGreaterThanOrderByIdAsc(afterUntitledId,
+                PageRequest.ofSize(limit - medicines.size())));
+        return page;
     }
 
     @Override
@@ -29,7 +67,7 @@ public class MedicineServiceImpl implements MedicineService {
 
     @Override
     public Medicine save(MedicineDto medicineDto) {
-        Medicine medicine = modelMapper.map(medicineDto, Medicine.class);
+        Medicine medicine = medicineMapper.toEntity(medicineDto);
         return medicineRepository.save(medicine);
     }
 
@@ -37,7 +75,7 @@ public class MedicineServiceImpl implements MedicineService {
     public Optional<Medicine> update(Long id, MedicineDto medicineDto) {
         return medicineRepository.findById(id)
                 .map(source -> {
-                    Medicine medicine = modelMapper.map(medicineDto, Medicine.class);
+                    Medicine medicine = medicineMapper.toEntity(medicineDto);
                     medicine.setId(id);
                     return medicineRepository.save(medicine);
                 });
@@ -0,0 +1,27 @@
+package com.eleks.academy.pharmagator.services;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+
+@Getter
+@RequiredArgsConstructor
+public enum MedicineSort {
+
+    ID("id"),
+
+    TITLE("title");
+
+    private final String parameter;
+
+    public static Optional<MedicineSort> fromParameter(String parameter) {
+        for (MedicineSort sort : values()) {
+            if (sort.parameter.equalsIgnoreCase(parameter)) {
+                return Optional.of(sort);
+            }
+        }
+        return Optional.empty();
+    }
+
+}
@@ -3,12 +3,11 @@ package com.eleks.academy.pharmagator.services;
 import com.eleks.academy.pharmagator.dataproviders.dto.input.PharmacyDto;
 import com.eleks.academy.pharmagator.entities.Pharmacy;
 
-import java.util.List;
 import java.util.Optional;
 
 public interface PharmacyService {
 
-    List<Pharmacy> findAll();
+    KeysetPage<Pharmacy> findPage(PharmacySort sort, String cursor, int size);
 
     Optional<Pharmacy> findById(Long id);
 
@@ -2,9 +2,11 @@ package com.eleks.academy.pharmagator.services;
 
 import com.eleks.academy.pharmagator.dataproviders.dto.input.PharmacyDto;
 import com.eleks.academy.pharmagator.entities.Pharmacy;
+import com.eleks.academy.pharmagator.mappers.PharmacyMapper;
 import com.eleks.academy.pharmagator.repositories.PharmacyRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,11 +17,26 @@ import java.util.Optional;
 public class PharmacyServiceImpl implements PharmacyService {
 
     private final PharmacyRepository pharmacyRepository;
-    private final ModelMapper modelMapper;
+    private final PharmacyMapper pharmacyMapper;
 
     @Override
-    public List<Pharmacy> findAll() {
-        return pharmacyRepository.findAll();
+    public KeysetPage<Pharmacy> findPage(PharmacySort sort, String cursor, int size) {
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<Pharmacy> pharmacies = switch (sort) {
+            case ID -> pharmacyRepository.findByIdGreaterThanOrderByIdAsc(
+                    cursor == null ? Long.MIN_VALUE : Long.parseLong(KeysetCursor.decode(cursor, sort, 1)[0]), limit);
+            case NAME -> {
+                if (cursor == null) {
+                    yield pharmacyRepository.findAllByOrderByNameAscIdAsc(limit);
+                }
+                String[] keys = KeysetCursor.decode(cursor, sort, 2);
+                yield pharmacyRepository.findPageAfterName(keys[0], Long.parseLong(keys[1]), limit);
+            }
+        };
+        return KeysetPage.of(pharmacies, size, last -> switch (sort) {
+            case ID -> KeysetCursor.encode(sort, last.getId());
+            case NAME -> KeysetCursor.encode(sort, last.getName(), last.getId());
+        });
     }
 
     @Override
@@ -29,7 +46,7 @@ public class PharmacyServiceImpl implements PharmacyService {
 
     @Override
     public Pharmacy save(PharmacyDto pharmacyDto) {
-        Pharmacy pharmacy = modelMapper.map(pharmacyDto, Pharmacy.class);
+        Pharmacy pharmacy = pharmacyMapper.toEntity(pharmacyDto);
         return pharmacyRepository.save(pharmacy);
     }
 
@@ -37,7 +54,7 @@ public class PharmacyServiceImpl implements PharmacyService {
     public Optional<Pharmacy> update(Long id, PharmacyDto pharmacyDto) {
         return pharmacyRepository.findById(id)
                 .map(ph ->{
-                    Pharmacy pharmacy = modelMapper.map(pharmacyDto, Pharmacy.class);
+                    Pharmacy pharmacy = pharmacyMapper.toEntity(pharmacyDto);
                     pharmacy.setId(id);
                     return pharmacyRepository.save(pharmacy);
                 });
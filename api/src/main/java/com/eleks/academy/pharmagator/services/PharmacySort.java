@@ -0,0 +1,27 @@
+package com.eleks.academy.pharmagator.services;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+
+@Getter
+@RequiredArgsConstructor
+public enum PharmacySort {
+
+    ID("id"),
+
+    NAME("name");
+
+    private final String parameter;
+
+    public static Optional<PharmacySort> fromParameter(String parameter) {
+        for (PharmacySort sort : values()) {
+            if (sort.parameter.equalsIgnoreCase(parameter)) {
+                return Optional.of(sort);
+            }
+        }
+        return Optional.empty();
+    }
+
+}
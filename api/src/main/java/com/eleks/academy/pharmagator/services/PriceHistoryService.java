@@ -0,0 +1,12 @@
+package com.eleks.academy.pharmagator.services;
+
+import com.eleks.academy.pharmagator.projections.PriceHistoryPoint;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface PriceHistoryService {
+
+    List<PriceHistoryPoint> findByMedicineId(Long medicineId, Instant from, Instant to);
+
+}
@@ -0,0 +1,22 @@
+package com.eleks.academy.pharmagator.services;
+
+import com.eleks.academy.pharmagator.projections.PriceHistoryPoint;
+import com.eleks.academy.pharmagator.repositories.PriceHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PriceHistoryServiceImpl implements PriceHistoryService {
+
+    private final PriceHistoryRepository priceHistoryRepository;
+
+    @Override
+    public List<PriceHistoryPoint> findByMedicineId(Long medicineId, Instant from, Instant to) {
+        return priceHistoryRepository.findAllByMedicineId(medicineId, from, to);
+    }
+
+}
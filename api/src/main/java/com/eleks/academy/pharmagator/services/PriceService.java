@@ -3,12 +3,11 @@ package com.eleks.academy.pharmagator.services;
 import com.eleks.academy.pharmagator.dataproviders.dto.input.PriceDto;
 import com.eleks.academy.pharmagator.entities.Price;
 
-import java.util.List;
 import java.util.Optional;
 
 public interface PriceService {
 
-    List<Price> findAll();
+    KeysetPage<Price> findPage(PriceSort sort, String cursor, int size);
 
     Optional<Price> findById(Long pharmacyId, Long medicineId);
 
@@ -3,13 +3,17 @@ package com.eleks.academy.pharmagator.services;
 import com.eleks.academy.pharmagator.dataproviders.dto.input.PriceDto;
 import com.eleks.academy.pharmagator.entities.Price;
 import com.eleks.academy.pharmagator.entities.PriceId;
+import com.eleks.academy.pharmagator.mappers.PriceMapper;
 import com.eleks.academy.pharmagator.repositories.MedicineRepository;
 import com.eleks.academy.pharmagator.repositories.PharmacyRepository;
 import com.eleks.academy.pharmagator.repositories.PriceRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,11 +25,34 @@ public class PriceServiceImpl implements PriceService {
     private final MedicineRepository medicineRepository;
     private final PharmacyRepository pharmacyRepository;
 
-    private final ModelMapper modelMapper;
+    private final PriceMapper priceMapper;
 
     @Override
-    public List<Price> findAll() {
-        return priceRepository.findAll();
+    public KeysetPage<Price> findPage(PriceSort sort, String cursor, int size) {
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<Price> prices;
+        if (cursor == null) {
+            prices = switch (sort) {
+                case ID -> priceRepository.findAllByOrderByPharmacyIdAscMedicineIdAsc(limit);
+                case UPDATED_AT -> priceRepository.findAllByOrderByUpdatedAtAscPharmacyIdAscMedicineIdAsc(limit);
+            };
+        } else {
+            prices = switch (sort) {
+                case ID -> {
+                    String[] keys = KeysetCursor.decode(cursor, sort, 2);
+                    yield priceRepository.findPageAfterId(Long.parseLong(keys[0]), Long.parseLong(keys[1]), limit);
+                }
+                case UPDATED_AT -> {
+                    String[] keys = KeysetCursor.decode(cursor, sort, 3);
+                    yield priceRepository.findPageAfterUpdatedAt(parseInstant(keys[0]),
+                            Long.parseLong(keys[1]), Long.parseLong(keys[2]), limit);
+                }
+            };
+        }
+        return KeysetPage.of(prices, size, last -> switch (sort) {
+            case ID -> KeysetCursor.encode(sort, last.getPharmacyId(), last.getMedicineId());
+            case UPDATED_AT -> KeysetCursor.encode(sort, last.getUpdatedAt(), last.getPharmacyId(), last.getMedicineId());
+        });
     }
 
     @Override
@@ -41,9 +68,7 @@ public class PriceServiceImpl implements PriceService {
 
         return this.priceRepository.findById(priceId)
                 .map(source -> {
-                    Price price = modelMapper.map(priceDto, Price.class);
-                    price.setPharmacyId(pharmacyId);
-                    price.setMedicineId(medicineId);
+                    Price price = priceMapper.toEntity(priceDto, pharmacyId, medicineId);
                     return priceRepository.save(price);
                 });
     }
@@ -54,4 +79,12 @@ public class PriceServiceImpl implements PriceService {
         priceRepository.deleteById(priceId);
     }
 
+    private static Instant parseInstant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
 }
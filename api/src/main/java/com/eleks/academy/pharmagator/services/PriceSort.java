@@ -0,0 +1,27 @@
+package com.eleks.academy.pharmagator.services;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+
+@Getter
+@RequiredArgsConstructor
+public enum PriceSort {
+
+    ID("id"),
+
+    UPDATED_AT("updatedAt");
+
+    private final String parameter;
+
+    public static Optional<PriceSort> fromParameter(String parameter) {
+        for (PriceSort sort : values()) {
+            if (sort.parameter.equalsIgnoreCase(parameter)) {
+                return Optional.of(sort);
+            }
+        }
+        return Optional.empty();
+    }
+
+}
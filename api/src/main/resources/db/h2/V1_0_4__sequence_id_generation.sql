@@ -0,0 +1,5 @@
+CREATE SEQUENCE medicines_seq INCREMENT BY 50;
+ALTER TABLE medicines ALTER COLUMN id SET DEFAULT NEXTVAL('medicines_seq');
+
+CREATE SEQUENCE pharmacies_seq INCREMENT BY 50;
+ALTER TABLE pharmacies ALTER COLUMN id SET DEFAULT NEXTVAL('pharmacies_seq');
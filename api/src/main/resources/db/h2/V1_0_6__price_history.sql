@@ -0,0 +1,7 @@
+CREATE TABLE price_history (
+    medicine_id bigint not null,
+    pharmacy_id bigint not null,
+    price decimal(10, 2) not null,
+    recorded_at timestamp with time zone not null default now(),
+    PRIMARY KEY (medicine_id, recorded_at, pharmacy_id)
+);
@@ -0,0 +1,55 @@
+DELETE FROM prices p
+WHERE EXISTS (
+    SELECT 1 FROM prices q
+    JOIN medicines qm ON qm.id = q.medicine_id
+    JOIN medicines pm ON pm.title = qm.title
+    WHERE pm.id = p.medicine_id
+      AND q.pharmacy_id = p.pharmacy_id
+      AND q.medicine_id <> p.medicine_id
+      AND (q.updated_at > p.updated_at OR (q.updated_at = p.updated_at AND q.medicine_id < p.medicine_id))
+);
+
+UPDATE prices
+SET medicine_id = (
+    SELECT MIN(d.id) FROM medicines d
+    JOIN medicines m ON m.title = d.title
+    WHERE m.id = prices.medicine_id
+)
+WHERE EXISTS (
+    SELECT 1 FROM medicines m
+    JOIN medicines d ON d.title = m.title AND d.id < m.id
+    WHERE m.id = prices.medicine_id
+);
+
+DELETE FROM medicines m
+WHERE EXISTS (SELECT 1 FROM medicines d WHERE d.title = m.title AND d.id < m.id);
+
+DELETE FROM prices p
+WHERE EXISTS (
+    SELECT 1 FROM prices q
+    JOIN pharmacies qp ON qp.id = q.pharmacy_id
+    JOIN pharmacies pp ON pp.name = qp.name
+    WHERE pp.id = p.pharmacy_id
+      AND q.medicine_id = p.medicine_id
+      AND q.pharmacy_id <> p.pharmacy_id
+      AND (q.updated_at > p.updated_at OR (q.updated_at = p.updated_at AND q.pharmacy_id < p.pharmacy_id))
+);
+
+UPDATE prices
+SET pharmacy_id = (
+    SELECT MIN(d.id) FROM pharmacies d
+    JOIN pharmacies p ON p.name = d.name
+    WHERE p.id = prices.pharmacy_id
+)
+WHERE EXISTS (
+    SELECT 1 FROM pharmacies p
+    JOIN pharmacies d ON d.name = p.name AND d.id < p.id
+    WHERE p.id = prices.pharmacy_id
+);
+
+DELETE FROM pharmacies p
+WHERE EXISTS (SELECT 1 FROM pharmacies d WHERE d.name = p.name AND d.id < p.id);
+
+CREATE UNIQUE INDEX medicines_title_key ON medicines (title);
+
+CREATE UNIQUE INDEX pharmacies_name_key ON pharmacies (name);
@@ -0,0 +1,9 @@
+CREATE TABLE crawl_checkpoints (
+    provider varchar(100) not null,
+    category varchar(256) not null,
+    completed_page bigint,
+    last_page bigint,
+    completed boolean not null default false,
+    updated_at timestamp not null default now(),
+    PRIMARY KEY (provider, category)
+);
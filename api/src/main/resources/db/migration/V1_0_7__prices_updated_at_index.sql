@@ -0,0 +1 @@
+CREATE INDEX prices_updated_at_idx ON prices (updated_at, pharmacy_id, medicine_id);
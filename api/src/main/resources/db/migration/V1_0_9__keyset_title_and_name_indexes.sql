@@ -0,0 +1,3 @@
+CREATE INDEX medicines_title_id_idx ON medicines (title, id);
+
+CREATE INDEX pharmacies_name_id_idx ON pharmacies (name, id);
@@ -0,0 +1,9 @@
+CREATE SEQUENCE medicines_seq INCREMENT BY 50 OWNED BY medicines.id;
+SELECT setval('medicines_seq', coalesce((SELECT max(id) FROM medicines), 0) + 50);
+ALTER TABLE medicines ALTER COLUMN id SET DEFAULT nextval('medicines_seq');
+DROP SEQUENCE medicines_id_seq;
+
+CREATE SEQUENCE pharmacies_seq INCREMENT BY 50 OWNED BY pharmacies.id;
+SELECT setval('pharmacies_seq', coalesce((SELECT max(id) FROM pharmacies), 0) + 50);
+ALTER TABLE pharmacies ALTER COLUMN id SET DEFAULT nextval('pharmacies_seq');
+DROP SEQUENCE pharmacies_id_seq;
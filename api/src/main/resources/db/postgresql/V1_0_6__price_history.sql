@@ -0,0 +1,31 @@
+CREATE TABLE price_history (
+    medicine_id bigint not null,
+    pharmacy_id bigint not null,
+    price decimal(10, 2) not null,
+    recorded_at timestamptz not null default now(),
+    PRIMARY KEY (medicine_id, recorded_at, pharmacy_id)
+) PARTITION BY RANGE (recorded_at);
+
+CREATE TABLE price_history_default PARTITION OF price_history DEFAULT;
+
+CREATE FUNCTION create_price_history_partition(month date) RETURNS text AS $$
+DECLARE
+    partition_start date := date_trunc('month', month::timestamp)::date;
+    partition_name text := 'price_history_' || to_char(partition_start, 'YYYY_MM');
+    range_start timestamptz := partition_start::timestamp AT TIME ZONE 'UTC';
+    range_end timestamptz := (partition_start + interval '1 month')::timestamp AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE price_history INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM price_history_default WHERE recorded_at >= %L AND recorded_at < %L RETURNING *) '
+                       || 'INSERT INTO %I SELECT * FROM moved', range_start, range_end, partition_name);
+    EXECUTE format('ALTER TABLE price_history ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_price_history_partition(((now() AT TIME ZONE 'UTC') + make_interval(months => m))::date)
+FROM generate_series(0, 2) AS m;
@@ -0,0 +1,7 @@
+CREATE UNLOGGED TABLE medicine_prices_staging (
+    ordinal bigint not null,
+    pharmacy_name text not null,
+    title text not null,
+    price decimal(10, 2) not null,
+    external_id text not null
+);
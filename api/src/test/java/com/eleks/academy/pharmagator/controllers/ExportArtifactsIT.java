@@ -0,0 +1,139 @@
+package com.eleks.academy.pharmagator.controllers;
+
+import com.eleks.academy.pharmagator.services.ExportArtifacts;
+import org.dbunit.database.DatabaseDataSourceConnection;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.xml.FlatXmlDataSetBuilder;
+import org.dbunit.operation.DatabaseOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "pharmagator.export.artifacts.directory=${java.io.tmpdir}/pharmagator-export-artifacts-it")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ExportArtifactsIT {
+
+    private static final String URI = "/export?format=csv";
+
+    private static final String CSV = "medicine,ExportControllerIT_pharmacy1,ExportControllerIT_pharmacy2\r\n"
+            + "ExportControllerIT_medicineA,,200.00\r\n"
+            + "ExportControllerIT_medicineB,150.00,140.50\r\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExportArtifacts exportArtifacts;
+
+    @Value("${pharmagator.export.artifacts.directory}")
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DatabaseDataSourceConnection connection = new DatabaseDataSourceConnection(dataSource);
+        try {
+            DatabaseOperation.REFRESH.execute(connection, readDataset());
+        } finally {
+            connection.close();
+        }
+        exportArtifacts.refresh();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "prices", "pharmacies", "medicines");
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void export_servesArtifactWithValidators_ok() throws Exception {
+        String body = this.mockMvc.perform(MockMvcRequestBuilders.get(URI))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(MockMvcResultMatchers.header().longValue(HttpHeaders.CONTENT_LENGTH, CSV.length()))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(CSV, body);
+    }
+
+    @Test
+    public void export_ifNoneMatch_notModified() throws Exception {
+        String eTag = this.mockMvc.perform(MockMvcRequestBuilders.get(URI))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+    }
+
+    @Test
+    public void export_range_partialContent() throws Exception {
+        String body = this.mockMvc.perform(MockMvcRequestBuilders.get(URI)
+                        .header(HttpHeaders.RANGE, "bytes=0-7"))
+                .andExpect(MockMvcResultMatchers.status().isPartialContent())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-7/" + CSV.length()))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals("medicine", body);
+    }
+
+    @Test
+    public void export_unsatisfiableRange_rangeNotSatisfiable() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI)
+                        .header(HttpHeaders.RANGE, "bytes=1000-"))
+                .andExpect(MockMvcResultMatchers.status().isRequestedRangeNotSatisfiable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + CSV.length()));
+    }
+
+    @Test
+    public void export_gzipUnsatisfiableRange_noContentEncoding() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.RANGE, "bytes=100000-"))
+                .andExpect(MockMvcResultMatchers.status().isRequestedRangeNotSatisfiable())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private IDataSet readDataset() throws DataSetException, IOException {
+        try (var resource = getClass()
+                .getResourceAsStream("ExportControllerIT_dataset.xml")) {
+            return new FlatXmlDataSetBuilder()
+                    .build(resource);
+        }
+    }
+
+}
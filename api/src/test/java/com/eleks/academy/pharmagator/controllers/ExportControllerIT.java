@@ -0,0 +1,155 @@
+package com.eleks.academy.pharmagator.controllers;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.dbunit.database.DatabaseDataSourceConnection;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.xml.FlatXmlDataSetBuilder;
+import org.dbunit.operation.DatabaseOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ExportControllerIT {
+
+    private static final String URI = "/export";
+
+    private static final String CSV = "medicine,ExportControllerIT_pharmacy1,ExportControllerIT_pharmacy2\r\n"
+            + "ExportControllerIT_medicineA,,200.00\r\n"
+            + "ExportControllerIT_medicineB,150.00,140.50\r\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DatabaseDataSourceConnection connection = new DatabaseDataSourceConnection(dataSource);
+        try {
+            DatabaseOperation.REFRESH.execute(connection, readDataset());
+        } finally {
+            connection.close();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "prices", "pharmacies", "medicines");
+    }
+
+    @Test
+    public void exportXlsx_medicinesOrderedByTitle_ok() throws Exception {
+        byte[] body = this.mockMvc.perform(MockMvcRequestBuilders.get(URI))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Disposition", "attachment; filename=export.xlsx"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(body))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals("ExportControllerIT_pharmacy1", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertEquals("ExportControllerIT_pharmacy2", sheet.getRow(0).getCell(2).getStringCellValue());
+
+            Row first = sheet.getRow(1);
+            assertEquals("ExportControllerIT_medicineA", first.getCell(0).getStringCellValue());
+            assertNull(first.getCell(1));
+            assertEquals(200.0, first.getCell(2).getNumericCellValue());
+
+            Row second = sheet.getRow(2);
+            assertEquals("ExportControllerIT_medicineB", second.getCell(0).getStringCellValue());
+            assertEquals(150.0, second.getCell(1).getNumericCellValue());
+            assertEquals(140.5, second.getCell(2).getNumericCellValue());
+            assertEquals(2, sheet.getLastRowNum());
+        }
+    }
+
+    @Test
+    public void exportCsv_acceptHeader_ok() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI).accept("text/csv"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Disposition", "attachment; filename=export.csv"))
+                .andExpect(MockMvcResultMatchers.content().string(CSV));
+    }
+
+    @Test
+    public void exportCsv_gzipEncoding_ok() throws Exception {
+        byte[] body = this.mockMvc.perform(MockMvcRequestBuilders.get(URI).param("format", "csv")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (var inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(CSV, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void exportCsv_gzipRejectedByQuality_identity() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI).param("format", "csv")
+                        .header("Accept-Encoding", "gzip;q=0, *;q=0.5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("Content-Encoding"))
+                .andExpect(MockMvcResultMatchers.content().string(CSV));
+    }
+
+    @Test
+    public void exportCsv_wildcardEncoding_gzip() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI).param("format", "csv")
+                        .header("Accept-Encoding", "br;q=1.0, *;q=0.1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"));
+    }
+
+    @Test
+    public void exportNdjson_oneObjectPerMedicine_ok() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI).accept("application/x-ndjson"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("""
+                        {"title":"ExportControllerIT_medicineA","prices":{"ExportControllerIT_pharmacy2":200.00}}
+                        {"title":"ExportControllerIT_medicineB","prices":{"ExportControllerIT_pharmacy1":150.00,"ExportControllerIT_pharmacy2":140.50}}
+                        """));
+    }
+
+    @Test
+    public void export_unsupportedFormat_notAcceptable() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI).accept("application/pdf"))
+                .andExpect(MockMvcResultMatchers.status().isNotAcceptable());
+    }
+
+    private IDataSet readDataset() throws DataSetException, IOException {
+        try (var resource = getClass()
+                .getResourceAsStream("ExportControllerIT_dataset.xml")) {
+            return new FlatXmlDataSetBuilder()
+                    .build(resource);
+        }
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.eleks.academy.pharmagator.controllers;
+
+import com.eleks.academy.pharmagator.services.ExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dbunit.database.DatabaseDataSourceConnection;
+import org.dbunit.dataset.DataSetException;
+import org.dbunit.dataset.IDataSet;
+import org.dbunit.dataset.xml.FlatXmlDataSetBuilder;
+import org.dbunit.operation.DatabaseOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+        "pharmagator.export.jobs.directory=${java.io.tmpdir}/pharmagator-export-jobs-it",
+        "pharmagator.export.jobs.threads=1",
+        "pharmagator.export.jobs.queue-capacity=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ExportJobsIT {
+
+    private static final String URI = "/export/jobs";
+
+    private static final String CSV = "medicine,ExportControllerIT_pharmacy1,ExportControllerIT_pharmacy2\r\n"
+            + "ExportControllerIT_medicineA,,200.00\r\n"
+            + "ExportControllerIT_medicineB,150.00,140.50\r\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @SpyBean
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${pharmagator.export.jobs.directory}")
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DatabaseDataSourceConnection connection = new DatabaseDataSourceConnection(dataSource);
+        try {
+            DatabaseOperation.REFRESH.execute(connection, readDataset());
+        } finally {
+            connection.close();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "prices", "pharmacies", "medicines");
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void submitJob_completesAndDownloads_ok() throws Exception {
+        String location = this.mockMvc.perform(MockMvcRequestBuilders.post(URI + "?format=csv"))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.format").value("CSV"))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        assertTrue(location.matches("http://localhost" + URI + "/[0-9a-f-]{36}"), location);
+
+        String status = "QUEUED";
+        for (int attempt = 0; attempt < 100 && !status.equals("COMPLETED"); attempt++) {
+            Thread.sleep(50);
+            JsonNode job = objectMapper.readTree(this.mockMvc.perform(MockMvcRequestBuilders.get(location))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            status = job.get("status").asText();
+        }
+        assertEquals("COMPLETED", status);
+
+        String body = this.mockMvc.perform(MockMvcRequestBuilders.get(location + "/download"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(CSV, body);
+    }
+
+    @Test
+    public void submitJob_queueFull_tooManyRequests() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(exportService).export(any(), any());
+
+        try {
+            this.mockMvc.perform(MockMvcRequestBuilders.post(URI).param("format", "csv"))
+                    .andExpect(MockMvcResultMatchers.status().isAccepted());
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            this.mockMvc.perform(MockMvcRequestBuilders.post(URI).param("format", "csv"))
+                    .andExpect(MockMvcResultMatchers.status().isAccepted());
+
+            this.mockMvc.perform(MockMvcRequestBuilders.post(URI).param("format", "csv"))
+                    .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                    .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "60"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void downloadJob_failed_internalServerErrorWithMessage() throws Exception {
+        doThrow(new IllegalStateException("disk full")).when(exportService).export(any(), any());
+
+        String location = this.mockMvc.perform(MockMvcRequestBuilders.post(URI).param("format", "csv"))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        String status = "QUEUED";
+        for (int attempt = 0; attempt < 100 && !status.equals("FAILED"); attempt++) {
+            Thread.sleep(50);
+            JsonNode job = objectMapper.readTree(this.mockMvc.perform(MockMvcRequestBuilders.get(location))
+                    .andReturn().getResponse().getContentAsString());
+            status = job.get("status").asText();
+        }
+        assertEquals("FAILED", status);
+
+        this.mockMvc.perform(MockMvcRequestBuilders.get(location))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("disk full"));
+        this.mockMvc.perform(MockMvcRequestBuilders.get(location + "/download"))
+                .andExpect(MockMvcResultMatchers.status().isInternalServerError())
+                .andExpect(MockMvcResultMatchers.status().reason("Export failed: disk full"));
+    }
+
+    @Test
+    public void downloadJob_running_conflict() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(exportService).export(any(), any());
+
+        try {
+            String location = this.mockMvc.perform(MockMvcRequestBuilders.post(URI).param("format", "csv"))
+                    .andExpect(MockMvcResultMatchers.status().isAccepted())
+                    .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            this.mockMvc.perform(MockMvcRequestBuilders.get(location + "/download"))
+                    .andExpect(MockMvcResultMatchers.status().isConflict())
+                    .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "5"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void getJob_unknownId_notFound() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI + "/{id}", UUID.randomUUID()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI + "/{id}/download", UUID.randomUUID()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void submitJob_unknownFormat_badRequest() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.post(URI).param("format", "pdf"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private IDataSet readDataset() throws DataSetException, IOException {
+        try (var resource = getClass()
+                .getResourceAsStream("ExportControllerIT_dataset.xml")) {
+            return new FlatXmlDataSetBuilder()
+                    .build(resource);
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.eleks.academy.pharmagator.controllers;
 
+import com.jayway.jsonpath.JsonPath;
 import org.dbunit.database.DatabaseDataSourceConnection;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.IDataSet;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
@@ -22,6 +24,11 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import javax.sql.DataSource;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -139,6 +146,28 @@ public class MedicineControllerIT {
     }
 
 
+    @Test
+    public void findAllMedicines_sortedByTitle_includesEmptyAndNullTitles() throws Exception {
+        jdbcTemplate.update("INSERT INTO medicines (id, title) VALUES (1, 'B')");
+        jdbcTemplate.update("INSERT INTO medicines (id, title) VALUES (2, NULL)");
+        jdbcTemplate.update("INSERT INTO medicines (id, title) VALUES (3, '')");
+        jdbcTemplate.update("INSERT INTO medicines (id, title) VALUES (4, 'A')");
+        jdbcTemplate.update("INSERT INTO medicines (id, title) VALUES (5, NULL)");
+
+        List<String> titles = new ArrayList<>();
+        String next = URI + "?sort=title&size=2";
+        while (next != null) {
+            var response = this.mockMvc.perform(MockMvcRequestBuilders.get(next))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn().getResponse();
+            titles.addAll(JsonPath.read(response.getContentAsString(), "$[*].title"));
+            String link = response.getHeader(HttpHeaders.LINK);
+            next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        }
+
+        assertEquals(Arrays.asList("", "A", "B", null, null), titles);
+    }
+
     private IDataSet readDataset() throws DataSetException, IOException {
 
         try (var resource = getClass()
@@ -1,13 +1,14 @@
 package com.eleks.academy.pharmagator.controllers;
 
-import com.eleks.academy.pharmagator.config.ModelMapperConfig;
 import com.eleks.academy.pharmagator.dataproviders.dto.input.MedicineDto;
 import com.eleks.academy.pharmagator.entities.Medicine;
+import com.eleks.academy.pharmagator.mappers.MedicineMapper;
+import com.eleks.academy.pharmagator.services.KeysetPage;
 import com.eleks.academy.pharmagator.services.MedicineServiceImpl;
+import com.eleks.academy.pharmagator.services.MedicineSort;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -32,7 +33,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @ActiveProfiles("test")
 @WebMvcTest(controllers = MedicineController.class)
-@Import({MedicineController.class, ModelMapperConfig.class})
+@Import({MedicineController.class, MedicineMapper.class})
 public class MedicineControllerTest {
 
     @Autowired
@@ -45,7 +46,7 @@ public class MedicineControllerTest {
     private MedicineServiceImpl medicineService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private MedicineMapper medicineMapper;
 
     private final String URI = "/medicines";
     private static Medicine medicine;
@@ -65,7 +66,7 @@ public class MedicineControllerTest {
 
         mockMvc.perform(post(URI)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(modelMapper.map(medicine, MedicineDto.class))))
+                        .content(objectMapper.writeValueAsString(medicineMapper.toDto(medicine))))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value(medicine.getTitle()))
                 .andDo(MockMvcResultHandlers.print());
@@ -75,13 +76,14 @@ public class MedicineControllerTest {
 
     @Test
     public void getAllProducts_() throws Exception {
-        when(medicineService.findAll()).thenReturn(medicineList);
+        when(medicineService.findPage(eq(MedicineSort.ID), isNull(), anyInt()))
+                .thenReturn(new KeysetPage<>(medicineList, null));
 
         mockMvc.perform(MockMvcRequestBuilders.get(URI)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(MockMvcResultHandlers.print());
 
-        verify(medicineService, times(1)).findAll();
+        verify(medicineService, times(1)).findPage(MedicineSort.ID, null, 50);
     }
 
     @Test
@@ -113,7 +115,7 @@ public class MedicineControllerTest {
 
         mockMvc.perform(put(URI + "/" + medicine.getId())
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(modelMapper.map(medicine, MedicineDto.class))))
+                        .content(objectMapper.writeValueAsString(medicineMapper.toDto(medicine))))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value(medicine.getTitle()))
                 .andDo(MockMvcResultHandlers.print());
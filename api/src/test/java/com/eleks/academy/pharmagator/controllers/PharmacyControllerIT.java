@@ -1,5 +1,6 @@
 package com.eleks.academy.pharmagator.controllers;
 
+import com.jayway.jsonpath.JsonPath;
 import org.dbunit.database.DatabaseDataSourceConnection;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.IDataSet;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
@@ -22,6 +24,10 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import javax.sql.DataSource;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -141,6 +147,27 @@ public class PharmacyControllerIT {
             this.dataSourceConnection.close();
         }
     }
+
+    @Test
+    public void findAllPharmacies_sortedByName_includesEmptyNames() throws Exception {
+        jdbcTemplate.update("INSERT INTO pharmacies (id, name) VALUES (1, 'b')");
+        jdbcTemplate.update("INSERT INTO pharmacies (id, name) VALUES (2, '')");
+        jdbcTemplate.update("INSERT INTO pharmacies (id, name) VALUES (3, 'a')");
+
+        List<String> names = new ArrayList<>();
+        String next = URI + "?sort=name&size=2";
+        while (next != null) {
+            var response = this.mockMvc.perform(MockMvcRequestBuilders.get(next))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn().getResponse();
+            names.addAll(JsonPath.read(response.getContentAsString(), "$[*].name"));
+            String link = response.getHeader(HttpHeaders.LINK);
+            next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        }
+
+        assertEquals(List.of("", "a", "b"), names);
+    }
+
     private IDataSet readDataset() throws DataSetException, IOException {
         try (var resource = getClass()
                 .getResourceAsStream("PharmacyControllerIT_dataset.xml")) {
@@ -1,5 +1,6 @@
 package com.eleks.academy.pharmagator.controllers;
 
+import com.jayway.jsonpath.JsonPath;
 import org.dbunit.database.DatabaseDataSourceConnection;
 import org.dbunit.dataset.DataSetException;
 import org.dbunit.dataset.IDataSet;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
@@ -22,6 +24,10 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import javax.sql.DataSource;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -68,6 +74,26 @@ public class PriceControllerIT {
         }
     }
 
+    @Test
+    public void findAllPrices_followsNextCursor_ok() throws Exception {
+        try {
+            DatabaseOperation.REFRESH.execute(this.dataSourceConnection, readDataset());
+
+            assertEquals(List.of("2021111201", "2021111202"), collectPages(URI + "?size=1"));
+            assertEquals(List.of("2021111201", "2021111202"), collectPages(URI + "?size=1&sort=updatedAt"));
+        } finally {
+            this.dataSourceConnection.close();
+        }
+    }
+
+    @Test
+    public void findAllPrices_invalidCursor_badRequest() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI).param("cursor", "not-a-cursor"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI).param("size", "0"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     public void findPriceById_ok() throws Exception {
         int pharmacyId = 2021111201;
@@ -133,6 +159,22 @@ public class PriceControllerIT {
         }
     }
 
+    private List<String> collectPages(String uri) throws Exception {
+        List<String> externalIds = new ArrayList<>();
+        String next = uri;
+        while (next != null) {
+            var response = this.mockMvc.perform(MockMvcRequestBuilders.get(next))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andReturn().getResponse();
+            List<String> page = JsonPath.read(response.getContentAsString(), "$[*].externalId");
+            externalIds.addAll(page);
+            String link = response.getHeader(HttpHeaders.LINK);
+            next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        }
+        return externalIds;
+    }
+
     private IDataSet readDataset() throws DataSetException, IOException {
         try (var resource = getClass()
                 .getResourceAsStream("PriceControllerIT_dataset.xml")) {
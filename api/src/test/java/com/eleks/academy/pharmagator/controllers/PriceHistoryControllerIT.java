@@ -0,0 +1,97 @@
+package com.eleks.academy.pharmagator.controllers;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PriceHistoryControllerIT {
+
+    private static final int MEDICINE_ID = 2021111201;
+
+    private static final int PHARMACY_ID_1 = 2021111201;
+
+    private static final int PHARMACY_ID_2 = 2021111202;
+
+    private final String URI = "/price-history/medicineId/{medicineId}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "price_history");
+    }
+
+    @Test
+    public void getByMedicineId_range_orderedByRecordedAtAndPharmacy() throws Exception {
+        insert(MEDICINE_ID, PHARMACY_ID_2, Instant.parse("2021-11-10T10:00:00Z"), "12");
+        insert(MEDICINE_ID, PHARMACY_ID_1, Instant.parse("2021-11-10T10:00:00Z"), "11");
+        insert(MEDICINE_ID, PHARMACY_ID_1, Instant.parse("2021-11-01T00:00:00Z"), "10");
+        insert(MEDICINE_ID, PHARMACY_ID_1, Instant.parse("2021-12-01T00:00:00Z"), "13");
+        insert(MEDICINE_ID + 1, PHARMACY_ID_1, Instant.parse("2021-11-10T10:00:00Z"), "20");
+
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI, MEDICINE_ID)
+                        .param("from", "2021-11-01T00:00:00Z")
+                        .param("to", "2021-12-01T00:00:00Z"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$[*].price", Matchers.contains(10.0, 11.0, 12.0)))
+                .andExpect(jsonPath("$[*].pharmacyId", Matchers.contains(PHARMACY_ID_1, PHARMACY_ID_1, PHARMACY_ID_2)))
+                .andExpect(jsonPath("$[0].recordedAt").value("2021-11-01T00:00:00Z"));
+    }
+
+    @Test
+    public void getByMedicineId_noRange_lastThirtyDays() throws Exception {
+        Instant now = Instant.now();
+        insert(MEDICINE_ID, PHARMACY_ID_1, now.minus(Duration.ofDays(10)), "10");
+        insert(MEDICINE_ID, PHARMACY_ID_1, now.minus(Duration.ofDays(40)), "20");
+        insert(MEDICINE_ID, PHARMACY_ID_1, now.plus(Duration.ofDays(1)), "30");
+
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI, MEDICINE_ID))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$[*].price", Matchers.contains(10.0)));
+
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI, MEDICINE_ID)
+                        .param("to", now.minus(Duration.ofDays(20)).toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$[*].price", Matchers.contains(20.0)));
+    }
+
+    @Test
+    public void getByMedicineId_fromNotBeforeTo_badRequest() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI, MEDICINE_ID)
+                        .param("from", "2021-12-01T00:00:00Z")
+                        .param("to", "2021-12-01T00:00:00Z"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        this.mockMvc.perform(MockMvcRequestBuilders.get(URI, MEDICINE_ID)
+                        .param("from", "2021-12-01"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private void insert(int medicineId, int pharmacyId, Instant recordedAt, String price) {
+        jdbcTemplate.update("INSERT INTO price_history (medicine_id, pharmacy_id, price, recorded_at) VALUES (?, ?, ?, ?)",
+                medicineId, pharmacyId, new BigDecimal(price), Timestamp.from(recordedAt));
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdaptiveBatchSizeTest {
+
+    @Test
+    public void record_growsWhenFastAndHalvesWhenSlow() {
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(40, 10, 60, Duration.ofMillis(100));
+
+        batchSize.record(Duration.ofMillis(50));
+        assertEquals(50, batchSize.current());
+        batchSize.record(Duration.ofMillis(50));
+        assertEquals(60, batchSize.current());
+
+        batchSize.record(Duration.ofMillis(500));
+        assertEquals(30, batchSize.current());
+        batchSize.record(Duration.ofMillis(500));
+        batchSize.record(Duration.ofMillis(500));
+        assertEquals(10, batchSize.current());
+    }
+
+    @Test
+    public void buffer_followsCurrentSize() {
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(3, 1, 10, Duration.ofMillis(100));
+
+        List<Integer> sizes = batchSize.buffer(Flux.range(0, 10))
+                .map(List::size)
+                .collect(Collectors.toList())
+                .block();
+
+        assertEquals(List.of(3, 3, 3, 1), sizes);
+    }
+
+}
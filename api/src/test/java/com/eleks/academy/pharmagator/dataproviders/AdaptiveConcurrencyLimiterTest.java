@@ -0,0 +1,130 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void acquire_overLimit_waitsForRelease() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 8, Duration.ofSeconds(1), 0.5);
+        AtomicBoolean third = new AtomicBoolean();
+
+        limiter.acquire().block();
+        limiter.acquire().block();
+        limiter.acquire().subscribe(ignored -> {
+        }, e -> {
+        }, () -> third.set(true));
+
+        assertFalse(third.get());
+        limiter.release(Duration.ofMillis(10), false);
+        assertTrue(third.get());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void release_increasesAdditivelyAndBacksOffMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 8, Duration.ofSeconds(1), 0.5);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire().block();
+            limiter.acquire().block();
+            limiter.release(Duration.ofMillis(10), false);
+            limiter.release(Duration.ofMillis(10), false);
+        }
+        assertTrue(limiter.getLimit() > 2);
+
+        int healthy = limiter.getLimit();
+        limiter.acquire().block();
+        limiter.release(Duration.ofMillis(10), true);
+        assertEquals(Math.max(1, healthy / 2), limiter.getLimit());
+
+        limiter.acquire().block();
+        limiter.release(Duration.ZERO, true);
+        assertEquals(Math.max(1, healthy / 4), limiter.getLimit());
+    }
+
+    @Test
+    public void release_overloadedWithinSameWindow_backsOffOnce() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 8, 1, 8, Duration.ofSeconds(1), 0.5);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire().block();
+        }
+        limiter.release(Duration.ofSeconds(30), true);
+        limiter.release(Duration.ofSeconds(30), true);
+        limiter.release(Duration.ofSeconds(2), false);
+        assertEquals(4, limiter.getLimit());
+
+        limiter.release(Duration.ZERO, true);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void filter_releasesPermitWhenBodyCompletes() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, Duration.ofSeconds(1), 0.5);
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost")).build();
+
+        ClientResponse response = limiter.filter()
+                .filter(request, ignored -> Mono.just(ClientResponse.create(HttpStatus.OK).body("ok").build()))
+                .block();
+
+        assertEquals(1, limiter.getInFlight());
+        assertEquals("ok", response.bodyToMono(String.class).block());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void filter_cancelledBeforeBodySubscribed_releasesPermit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, Duration.ofSeconds(1), 0.5);
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost")).build();
+        ClientResponse response = ClientResponse.create(HttpStatus.OK).body("ok").build();
+
+        limiter.filter()
+                .filter(request, ignored -> Mono.fromDirect(Flux.just(response).concatWith(Mono.never())))
+                .subscribe(new BaseSubscriber<>() {
+
+                    @Override
+                    protected void hookOnSubscribe(Subscription subscription) {
+                        request(1);
+                    }
+
+                    @Override
+                    protected void hookOnNext(ClientResponse value) {
+                        cancel();
+                    }
+
+                });
+
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void acquire_cancelledWhileWaiting_doesNotLeakPermit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, Duration.ofSeconds(1), 0.5);
+
+        limiter.acquire().block();
+        Disposable waiting = limiter.acquire().subscribe();
+        waiting.dispose();
+        limiter.release(Duration.ofMillis(10), false);
+
+        assertEquals(0, limiter.getInFlight());
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void onFailure_thresholdReached_opens() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 2, Duration.ofMinutes(1), Clock.systemUTC());
+
+        circuitBreaker.onFailure();
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void tryAcquire_afterOpenDuration_allowsSingleTrial() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ZERO, Clock.systemUTC());
+        circuitBreaker.onFailure();
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+}
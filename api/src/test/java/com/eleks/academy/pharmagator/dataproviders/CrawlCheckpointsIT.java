@@ -0,0 +1,152 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import com.eleks.academy.pharmagator.entities.CrawlCheckpoint;
+import com.eleks.academy.pharmagator.entities.CrawlCheckpointId;
+import com.eleks.academy.pharmagator.repositories.CrawlCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CrawlCheckpointsIT {
+
+    private static final String PROVIDER = "test-provider";
+
+    @Autowired
+    private CrawlCheckpointRepository crawlCheckpointRepository;
+
+    private final Pagination pagination = new Pagination(1, false);
+
+    private CrawlCheckpoints crawlCheckpoints;
+
+    @BeforeEach
+    void setUp() {
+        restart();
+    }
+
+    @AfterEach
+    void tearDown() {
+        crawlCheckpointRepository.deleteAll();
+    }
+
+    @Test
+    public void crawl_interrupted_resumesAfterLastCompletedPage() {
+        List<Long> requested = new CopyOnWriteArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> crawlCheckpoints.resume(PROVIDER)
+                .crawl("category", 0L, pagination, (page, lastPage) -> {
+                    requested.add(page);
+                    lastPage.accept(5);
+                    return page == 3 ? Flux.error(new IllegalStateException()) : Flux.just(medicine(page));
+                })
+                .doOnNext(CrawlCheckpointsIT::commit)
+                .collectList()
+                .block());
+
+        CrawlCheckpoint checkpoint = crawlCheckpointRepository.findById(new CrawlCheckpointId(PROVIDER, "category"))
+                .orElseThrow();
+        assertEquals(5, checkpoint.getLastPage());
+        assertEquals(2, checkpoint.getCompletedPage());
+
+        requested.clear();
+        restart();
+        CrawlProgress progress = crawlCheckpoints.resume(PROVIDER);
+        List<Long> pages = progress.crawl("category", 0L, pagination, (page, lastPage) -> {
+                    requested.add(page);
+                    return Flux.just(medicine(page));
+                })
+                .concatWith(progress.finish())
+                .doOnNext(CrawlCheckpointsIT::commit)
+                .filter(CrawlItem.Medicine.class::isInstance)
+                .map(item -> Long.valueOf(((CrawlItem.Medicine) item).dto().getExternalId()))
+                .sort()
+                .collectList()
+                .block();
+
+        assertEquals(List.of(3L, 4L, 5L), requested);
+        assertEquals(List.of(3L, 4L, 5L), pages);
+        assertTrue(crawlCheckpointRepository.findAllByProvider(PROVIDER).isEmpty());
+    }
+
+    @Test
+    public void crawl_checkpointNotCommitted_notSaved() {
+        List<CrawlItem> items = crawlCheckpoints.resume(PROVIDER)
+                .crawl("category", 0L, pagination, (page, lastPage) -> {
+                    lastPage.accept(2);
+                    return Flux.just(medicine(page));
+                })
+                .collectList()
+                .block();
+
+        assertEquals(4, items.stream().filter(CrawlItem.Checkpoint.class::isInstance).count());
+        assertTrue(crawlCheckpointRepository.findAllByProvider(PROVIDER).isEmpty());
+    }
+
+    @Test
+    public void resume_secondCrawlSinceStartup_startsOver() {
+        assertThrows(IllegalStateException.class, () -> crawlCheckpoints.resume(PROVIDER)
+                .crawl("category", 0L, pagination, (page, lastPage) -> {
+                    lastPage.accept(5);
+                    return page == 3 ? Flux.error(new IllegalStateException()) : Flux.just(medicine(page));
+                })
+                .doOnNext(CrawlCheckpointsIT::commit)
+                .blockLast());
+
+        CrawlProgress progress = crawlCheckpoints.resume(PROVIDER);
+
+        assertEquals(0, progress.nextPage("category", 0L));
+        assertTrue(crawlCheckpointRepository.findAllByProvider(PROVIDER).isEmpty());
+    }
+
+    @Test
+    public void resume_staleCheckpoints_discarded() {
+        crawlCheckpointRepository.save(CrawlCheckpoint.builder()
+                .provider(PROVIDER)
+                .category("category")
+                .completedPage(7L)
+                .lastPage(9L)
+                .updatedAt(Instant.now().minus(Duration.ofDays(2)))
+                .build());
+
+        CrawlProgress progress = crawlCheckpoints.resume(PROVIDER);
+
+        assertEquals(1, progress.nextPage("category", 1L));
+        assertTrue(crawlCheckpointRepository.findAllByProvider(PROVIDER).isEmpty());
+    }
+
+    private void restart() {
+        crawlCheckpoints = new CrawlCheckpoints(crawlCheckpointRepository);
+        ReflectionTestUtils.setField(crawlCheckpoints, "checkpointStaleness", Duration.ofHours(6));
+    }
+
+    private static void commit(CrawlItem item) {
+        if (item instanceof CrawlItem.Checkpoint checkpoint) {
+            checkpoint.commit().run();
+        }
+    }
+
+    private static MedicineDto medicine(long page) {
+        return MedicineDto.builder()
+                .title("Medicine " + page)
+                .externalId(String.valueOf(page))
+                .pharmacyName(PROVIDER)
+                .build();
+    }
+
+}
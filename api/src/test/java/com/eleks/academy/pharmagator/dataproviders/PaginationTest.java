@@ -0,0 +1,80 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PaginationTest {
+
+    @Test
+    public void pageCount_roundsUpPartialPage() {
+        assertEquals(0, Pagination.pageCount(null, 400));
+        assertEquals(0, Pagination.pageCount(0L, 400));
+        assertEquals(1, Pagination.pageCount(1L, 400));
+        assertEquals(1, Pagination.pageCount(400L, 400));
+        assertEquals(2, Pagination.pageCount(401L, 400));
+    }
+
+    @Test
+    public void fetch_ordered_keepsPageOrder() {
+        Pagination pagination = new Pagination(4, true);
+
+        List<Long> pages = pagination.fetch(1, 8, this::delayedPage)
+                .collectList()
+                .block();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), pages);
+    }
+
+    @Test
+    public void fetch_unordered_limitsConcurrency() {
+        Pagination pagination = new Pagination(3, false);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        List<Long> pages = pagination.fetch(0, 11, page -> Mono.fromCallable(() -> {
+                            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                            return page;
+                        })
+                        .delayElement(Duration.ofMillis(10))
+                        .doOnNext(p -> inFlight.decrementAndGet()))
+                .collectList()
+                .block();
+
+        assertEquals(12, pages.size());
+        assertTrue(maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void fetch_firstPageDefinesLastPage() {
+        Pagination pagination = new Pagination(2, true);
+
+        List<Long> pages = pagination.fetch(0L, Mono::just, firstPage -> 2)
+                .collectList()
+                .block();
+
+        assertEquals(List.of(0L, 1L, 2L), pages);
+    }
+
+    @Test
+    public void fetchWhile_includesLastPage() {
+        Pagination pagination = new Pagination(1, true);
+
+        List<Long> pages = pagination.fetchWhile(1L, Mono::just, page -> page < 5)
+                .collectList()
+                .block();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), pages);
+    }
+
+    private Mono<Long> delayedPage(long page) {
+        return Mono.just(page).delayElement(Duration.ofMillis(50 - page * 5));
+    }
+
+}
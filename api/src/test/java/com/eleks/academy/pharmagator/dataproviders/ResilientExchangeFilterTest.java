@@ -0,0 +1,113 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResilientExchangeFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/page")).build();
+
+    @Test
+    public void filter_transientFailure_retried() {
+        AtomicInteger attempts = new AtomicInteger();
+        ResilientExchangeFilter filter = filter(new CircuitBreaker("test", 5, Duration.ofMinutes(1), Clock.systemUTC()));
+
+        ClientResponse response = filter.filter(request, r -> Mono.just(ClientResponse
+                        .create(attempts.incrementAndGet() < 3 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK)
+                        .build()))
+                .block();
+
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals(3, attempts.get());
+        assertEquals(2, meterRegistry.counter("pharmagator.data-provider.requests", "provider", "test", "outcome", "retried").count());
+        assertEquals(1, meterRegistry.counter("pharmagator.data-provider.requests", "provider", "test", "outcome", "success").count());
+    }
+
+    @Test
+    public void filter_persistentFailure_opensCircuit() {
+        AtomicInteger attempts = new AtomicInteger();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ofMinutes(1), Clock.systemUTC());
+        ResilientExchangeFilter filter = filter(circuitBreaker);
+
+        Mono<ClientResponse> exchange = filter.filter(request, r -> {
+            attempts.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.BAD_GATEWAY).build());
+        });
+
+        assertThrows(WebClientResponseException.class, exchange::block);
+        assertThrows(CircuitBreakerOpenException.class, exchange::block);
+        assertEquals(3, attempts.get());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void filter_hungRequest_timesOut() {
+        ResilientExchangeFilter filter = new ResilientExchangeFilter("test",
+                new CircuitBreaker("test", 5, Duration.ofMinutes(1), Clock.systemUTC()), Duration.ofMillis(50),
+                1, Duration.ofMillis(1), Duration.ofMillis(1), 0.5, meterRegistry);
+
+        assertThrows(RuntimeException.class, () -> filter.andThen(filter.deadline())
+                .filter(request, r -> Mono.never())
+                .block());
+        assertEquals(1, meterRegistry.counter("pharmagator.data-provider.requests", "provider", "test", "outcome", "timeout").count());
+    }
+
+    @Test
+    public void deadline_waitingForPermit_notTimedOut() {
+        ResilientExchangeFilter filter = new ResilientExchangeFilter("test",
+                new CircuitBreaker("test", 1, Duration.ofMinutes(1), Clock.systemUTC()), Duration.ofMillis(50),
+                1, Duration.ofMillis(1), Duration.ofMillis(1), 0.5, meterRegistry);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, Duration.ofSeconds(1), 0.5);
+        ExchangeFunction exchange = filter.andThen(limiter.filter()).andThen(filter.deadline())
+                .apply(r -> Mono.just(ClientResponse.create(HttpStatus.OK).build()));
+
+        limiter.acquire().block();
+        Mono.delay(Duration.ofMillis(150)).subscribe(ignored -> limiter.release(Duration.ofMillis(10), false));
+        ClientResponse response = exchange.exchange(request).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals(0, meterRegistry.counter("pharmagator.data-provider.requests", "provider", "test", "outcome", "timeout").count());
+    }
+
+    @Test
+    public void deadline_stalledBody_timesOut() {
+        ResilientExchangeFilter filter = new ResilientExchangeFilter("test",
+                new CircuitBreaker("test", 5, Duration.ofMinutes(1), Clock.systemUTC()), Duration.ofMillis(50),
+                1, Duration.ofMillis(1), Duration.ofMillis(1), 0.5, meterRegistry);
+
+        ClientResponse response = filter.deadline()
+                .filter(request, r -> Mono.just(ClientResponse.create(HttpStatus.OK).body(Flux.never()).build()))
+                .block();
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> response.bodyToMono(String.class).block());
+        assertTrue(Exceptions.unwrap(error) instanceof TimeoutException);
+    }
+
+    private ResilientExchangeFilter filter(CircuitBreaker circuitBreaker) {
+        return new ResilientExchangeFilter("test", circuitBreaker, Duration.ofSeconds(5),
+                3, Duration.ofMillis(1), Duration.ofMillis(5), 0.5, meterRegistry);
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StreamDataProviderAdapterTest {
+
+    private final Scheduler scheduler = Schedulers.newSingle("adapter-test");
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void adapt_reactiveProvider_returnedAsIs() {
+        ReactiveDataProvider reactiveDataProvider = () -> Flux.just(medicine("1"));
+
+        assertSame(reactiveDataProvider, ReactiveDataProvider.adapt(reactiveDataProvider, scheduler));
+        assertEquals(List.of("1"), reactiveDataProvider.loadData()
+                .map(StreamDataProviderAdapterTest::externalId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void adapt_blockingProvider_loadsOnScheduler() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        DataProvider dataProvider = () -> Stream.of(medicine("1"), medicine("2"))
+                .peek(item -> threads.add(Thread.currentThread().getName()));
+
+        ReactiveDataProvider adapted = ReactiveDataProvider.adapt(dataProvider, scheduler);
+        List<String> externalIds = adapted.loadFlux()
+                .map(StreamDataProviderAdapterTest::externalId)
+                .collectList()
+                .block();
+
+        assertTrue(adapted instanceof StreamDataProviderAdapter);
+        assertEquals(List.of("1", "2"), externalIds);
+        assertTrue(threads.stream().allMatch(thread -> thread.startsWith("adapter-test")));
+    }
+
+    @Test
+    public void loadFlux_streamFailsMidway_propagatesErrorAfterEmittedItems() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        DataProvider dataProvider = () -> Stream.of("1", "2", "3")
+                .map(id -> {
+                    if (id.equals("3")) {
+                        throw new IllegalStateException("page 3 failed");
+                    }
+                    return medicine(id);
+                });
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                ReactiveDataProvider.adapt(dataProvider, scheduler).loadFlux()
+                        .doOnNext(item -> received.add(externalId(item)))
+                        .blockLast());
+
+        assertEquals("page 3 failed", error.getMessage());
+        assertEquals(List.of("1", "2"), received);
+    }
+
+    @Test
+    public void loadFlux_loadDataFails_propagatesError() {
+        DataProvider dataProvider = () -> {
+            throw new IllegalStateException("unreachable");
+        };
+
+        assertThrows(IllegalStateException.class, () ->
+                ReactiveDataProvider.adapt(dataProvider, scheduler).loadFlux().blockLast());
+    }
+
+    private static CrawlItem medicine(String externalId) {
+        return CrawlItem.medicine(MedicineDto.builder()
+                .title("Medicine " + externalId)
+                .externalId(externalId)
+                .pharmacyName("test")
+                .build());
+    }
+
+    private static String externalId(CrawlItem item) {
+        return ((CrawlItem.Medicine) item).dto().getExternalId();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.eleks.academy.pharmagator.dataproviders;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.anc.ANCMedicineDto;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StreamingPageDecoderTest {
+
+    private final StreamingPageDecoder decoder = new StreamingPageDecoder(new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+
+    @Test
+    public void decode_splitBody_readsItemsAndTotal() {
+        String json = "{\"filters\":{\"products\":[{\"id\":\"x\"}]},"
+                + "\"products\":[{\"id\":\"1\",\"name\":\"Aspirin\",\"price\":19.99,\"images\":[{\"url\":\"a\"}]},"
+                + "{\"id\":\"2\",\"name\":\"Nurofen\",\"price\":120.50,\"meta\":{\"total\":5}}],"
+                + "\"total\":812}";
+        AtomicLong total = new AtomicLong();
+
+        List<ANCMedicineDto> items = decoder.decode(chunks(json, 7), "products", ANCMedicineDto.class, "total", total::set)
+                .collectList()
+                .block();
+
+        assertEquals(812, total.get());
+        assertEquals(2, items.size());
+        assertEquals("Aspirin", items.get(0).getName());
+        assertEquals(new BigDecimal("19.99"), items.get(0).getPrice());
+        assertEquals("2", items.get(1).getId());
+        assertEquals(new BigDecimal("120.50"), items.get(1).getPrice());
+    }
+
+    @Test
+    public void decode_missingItems_empty() {
+        AtomicLong total = new AtomicLong(-1);
+
+        List<ANCMedicineDto> items = decoder.decode(chunks("{\"total\":0}", 3), "products", ANCMedicineDto.class, "total", total::set)
+                .collectList()
+                .block();
+
+        assertEquals(0, total.get());
+        assertEquals(List.of(), items);
+    }
+
+    private Flux<DataBuffer> chunks(String json, int size) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return Flux.range(0, (bytes.length + size - 1) / size)
+                .map(i -> DefaultDataBufferFactory.sharedInstance
+                        .wrap(Arrays.copyOfRange(bytes, i * size, Math.min(bytes.length, (i + 1) * size))));
+    }
+
+}
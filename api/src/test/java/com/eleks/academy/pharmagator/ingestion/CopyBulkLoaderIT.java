@@ -0,0 +1,179 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import com.eleks.academy.pharmagator.dataproviders.CrawlItem;
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Slf4j
+public class CopyBulkLoaderIT {
+
+    private static final int CRAWL_SIZE = 50_000;
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private CopyBulkLoader copyBulkLoader;
+
+    private PriceBatchWriter priceBatchWriter;
+
+    private IdResolver idResolver;
+
+    @BeforeAll
+    public static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration", "classpath:db/postgresql")
+                .load()
+                .migrate();
+    }
+
+    @AfterAll
+    public static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        idResolver = new IdResolver(jdbcTemplate, Optional.empty());
+        copyBulkLoader = new CopyBulkLoader(jdbcTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(copyBulkLoader, "copyChunkSize", 1000);
+        priceBatchWriter = new PriceBatchWriter(jdbcTemplate, idResolver, transactionTemplate,
+                new IngestionExecutors(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(priceBatchWriter, "batchSize", 1000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "prices", "pharmacies", "medicines");
+    }
+
+    @Test
+    public void load_mergesStagedRows_ok() {
+        jdbcTemplate.update("INSERT INTO medicines (title) VALUES ('Vitamin C')");
+
+        long written = copyBulkLoader.load(Stream.of(
+                medicine("Vitamin C", "10.50", "1", "apteka-ds"),
+                medicine("Vitamin \"B\", 10 mg", "20", "2", "apteka-ds"),
+                medicine("Vitamin C", "11.00", "1", "apteka-ds"),
+                medicine("Vitamin C", "12.25", "7", "pharmacy-anc"))
+                .map(CrawlItem::medicine));
+
+        assertEquals(3, written);
+        assertEquals(2, JdbcTestUtils.countRowsInTable(jdbcTemplate, "medicines"));
+        assertEquals(2, JdbcTestUtils.countRowsInTable(jdbcTemplate, "pharmacies"));
+        assertEquals(new BigDecimal("11.00"), jdbcTemplate.queryForObject("""
+                SELECT pr.price FROM prices pr
+                JOIN medicines m ON m.id = pr.medicine_id
+                JOIN pharmacies ph ON ph.id = pr.pharmacy_id
+                WHERE m.title = 'Vitamin C' AND ph.name = 'apteka-ds'
+                """, BigDecimal.class));
+        assertEquals(0, JdbcTestUtils.countRowsInTable(jdbcTemplate, "medicine_prices_staging"));
+    }
+
+    @Test
+    public void load_crawlFailsMidway_keepsCopiedChunks() {
+        Stream<CrawlItem> failing = IntStream.range(0, 2500)
+                .mapToObj(i -> {
+                    if (i == 2100) {
+                        throw new IllegalStateException("provider failed");
+                    }
+                    return CrawlItem.medicine(medicine("Medicine " + i, i + ".99", String.valueOf(i), "apteka-ds"));
+                });
+
+        assertThrows(IllegalStateException.class, () -> copyBulkLoader.load(failing));
+
+        assertEquals(2000, JdbcTestUtils.countRowsInTable(jdbcTemplate, "prices"));
+        assertEquals(0, JdbcTestUtils.countRowsInTable(jdbcTemplate, "medicine_prices_staging"));
+    }
+
+    @Test
+    public void load_fullCrawl_sameResultAsBatchWriter() {
+        long batchMillis = measure(() -> {
+            idResolver.warmUp();
+            return priceBatchWriter.write(crawl());
+        });
+        int batchPrices = JdbcTestUtils.countRowsInTable(jdbcTemplate, "prices");
+        tearDown();
+
+        long copyMillis = measure(() -> copyBulkLoader.load(crawl()));
+        int copyPrices = JdbcTestUtils.countRowsInTable(jdbcTemplate, "prices");
+
+        log.info("Stored {} medicines: batch mode {} items/s, copy mode {} items/s",
+                CRAWL_SIZE, CRAWL_SIZE * 1000L / Math.max(batchMillis, 1), CRAWL_SIZE * 1000L / Math.max(copyMillis, 1));
+        assertEquals(CRAWL_SIZE, batchPrices);
+        assertEquals(batchPrices, copyPrices);
+    }
+
+    @Test
+    public void load_newMedicines_idsAllocatedInSequenceBlocks() {
+        long before = lastMedicineId();
+        copyBulkLoader.load(IntStream.range(0, 120)
+                .mapToObj(i -> CrawlItem.medicine(medicine("Copied " + i, "1.00", String.valueOf(i), "apteka-ds"))));
+        long copied = lastMedicineId();
+
+        idResolver.warmUp();
+        priceBatchWriter.write(IntStream.range(0, 120)
+                .mapToObj(i -> CrawlItem.medicine(medicine("Written " + i, "1.00", String.valueOf(i), "apteka-ds"))));
+        long written = lastMedicineId();
+
+        assertEquals(3 * 50, copied - before);
+        assertEquals(3 * 50, written - copied);
+        assertEquals(240, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM medicines WHERE id > ? AND id <= ?", Integer.class, before, written));
+    }
+
+    private long lastMedicineId() {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM medicines_seq", Long.class);
+    }
+
+    private static long measure(LongSupplier ingestion) {
+        long start = System.nanoTime();
+        ingestion.getAsLong();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static Stream<CrawlItem> crawl() {
+        return IntStream.range(0, CRAWL_SIZE)
+                .mapToObj(i -> CrawlItem.medicine(
+                        medicine("Medicine " + i, i + ".99", String.valueOf(i), "pharmacy-" + i % 4)));
+    }
+
+    private static MedicineDto medicine(String title, String price, String externalId, String pharmacyName) {
+        return MedicineDto.builder()
+                .title(title)
+                .price(new BigDecimal(price))
+                .externalId(externalId)
+                .pharmacyName(pharmacyName)
+                .build();
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IngestionExecutorsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IngestionExecutors ingestionExecutors;
+
+    @BeforeEach
+    public void setUp() {
+        ingestionExecutors = new IngestionExecutors(meterRegistry);
+        ReflectionTestUtils.setField(ingestionExecutors, "fetchThreads", 1);
+        ReflectionTestUtils.setField(ingestionExecutors, "fetchQueueCapacity", 1);
+        ReflectionTestUtils.setField(ingestionExecutors, "writerThreads", 2);
+        ReflectionTestUtils.setField(ingestionExecutors, "writerQueueCapacity", 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ingestionExecutors.destroy();
+    }
+
+    @Test
+    public void fetchScheduler_onePoolPerProviderWithNamedThreads() {
+        Scheduler ds = ingestionExecutors.fetchScheduler("apteka-ds");
+
+        assertSame(ds, ingestionExecutors.fetchScheduler("apteka-ds"));
+        assertNotSame(ds, ingestionExecutors.fetchScheduler("apteka-anc"));
+        assertTrue(threadName(ds).startsWith("ingestion-fetch-apteka-ds-"));
+        assertTrue(threadName(ingestionExecutors.writerScheduler()).startsWith("ingestion-writer-"));
+    }
+
+    @Test
+    public void schedulers_bindExecutorMetrics() {
+        ingestionExecutors.fetchScheduler("apteka-ds");
+        ingestionExecutors.writerScheduler();
+
+        assertNotNull(meterRegistry.find("executor.pool.max")
+                .tags("name", "ingestion-fetch-apteka-ds", "pool", "ingestion")
+                .gauge());
+        assertEquals(2, meterRegistry.find("executor.pool.max")
+                .tags("name", "ingestion-writer", "pool", "ingestion")
+                .gauge()
+                .value());
+    }
+
+    @Test
+    public void fetchScheduler_queueFull_rejectsWork() throws InterruptedException {
+        Scheduler scheduler = ingestionExecutors.fetchScheduler("apteka-ds");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            started.countDown();
+            await(release);
+        };
+
+        scheduler.schedule(blocking);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        scheduler.schedule(blocking);
+
+        assertThrows(RejectedExecutionException.class, () -> scheduler.schedule(blocking));
+        release.countDown();
+    }
+
+    private static String threadName(Scheduler scheduler) {
+        return Mono.fromCallable(() -> Thread.currentThread().getName())
+                .subscribeOn(scheduler)
+                .block();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MedicineMatcherTest {
+
+    private final MedicineMatcher matcher = new MedicineMatcher(12, 4, 0.7);
+
+    @Test
+    public void normalize_splitsDosageAndDropsPunctuation() {
+        assertEquals("нурофен 200 мг 24", TitleNormalizer.normalize("Нурофен 200мг №24"));
+        assertEquals("нурофен таб 200 мг 24", TitleNormalizer.normalize("НУРОФЕН таб. 200 мг №24"));
+        assertEquals("сироп 2.5 мл", TitleNormalizer.normalize("Сироп 2,5мл"));
+    }
+
+    @Test
+    public void match_findsNearDuplicateWithSameDosage() {
+        matcher.add("НУРОФЕН таб. 200 мг №24", 1L);
+        matcher.add("Аспірин табл. 500 мг №10", 2L);
+
+        assertEquals(1L, matcher.match("Нурофен 200мг №24"));
+        assertNull(matcher.match("Нурофен 400мг №24"));
+        assertNull(matcher.match("Нурофен 200мг №12"));
+        assertNull(matcher.match("Парацетамол 200мг №24"));
+    }
+
+    @Test
+    public void group_mergesDuplicatesWithinBatch() {
+        matcher.add("Аспірин табл. 500 мг №10", 2L);
+        Map<String, Long> matched = new HashMap<>();
+
+        Map<String, List<String>> groups = matcher.group(List.of(
+                        "АСПІРИН 500мг №10", "Нурофен 200мг №24", "НУРОФЕН таб. 200 мг №24", "Нурофен 400мг №24"),
+                matched, Map.of(), ids -> Map.of());
+
+        assertEquals(Map.of("АСПІРИН 500мг №10", 2L), matched);
+        assertEquals(List.of("Нурофен 200мг №24", "НУРОФЕН таб. 200 мг №24"), groups.get("Нурофен 200мг №24"));
+        assertEquals(List.of("Нурофен 400мг №24"), groups.get("Нурофен 400мг №24"));
+        assertEquals(2, groups.size());
+        assertEquals(2, matcher.getMatches());
+    }
+
+    @Test
+    public void group_samePharmacyDifferentSku_notMerged() {
+        matcher.add("Аспірин табл. 500 мг №10", 2L);
+        Map<String, Long> matched = new HashMap<>();
+
+        Map<String, List<String>> groups = matcher.group(List.of(
+                        "АСПІРИН 500мг №10", "Нурофен 200мг №24", "НУРОФЕН таб. 200 мг №24"),
+                matched,
+                Map.of("АСПІРИН 500мг №10", Set.of(new Sku(1L, "a-2")),
+                        "Нурофен 200мг №24", Set.of(new Sku(1L, "n-1")),
+                        "НУРОФЕН таб. 200 мг №24", Set.of(new Sku(1L, "n-2"), new Sku(3L, "n-3"))),
+                ids -> Map.of(2L, Set.of(new Sku(1L, "a-1"))));
+
+        assertTrue(matched.isEmpty());
+        assertEquals(Set.of("АСПІРИН 500мг №10", "Нурофен 200мг №24", "НУРОФЕН таб. 200 мг №24"), groups.keySet());
+        assertEquals(0, matcher.getMatches());
+    }
+
+    @Test
+    public void group_samePharmacySameSku_merged() {
+        matcher.add("Аспірин табл. 500 мг №10", 2L);
+        Map<String, Long> matched = new HashMap<>();
+
+        matcher.group(List.of("АСПІРИН 500мг №10"), matched,
+                Map.of("АСПІРИН 500мг №10", Set.of(new Sku(1L, "a-1"))),
+                ids -> Map.of(2L, Set.of(new Sku(1L, "a-1"), new Sku(4L, "a-4"))));
+
+        assertEquals(Map.of("АСПІРИН 500мг №10", 2L), matched);
+    }
+
+}
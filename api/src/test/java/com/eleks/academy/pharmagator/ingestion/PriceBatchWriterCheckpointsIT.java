@@ -0,0 +1,131 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import com.eleks.academy.pharmagator.dataproviders.CrawlCheckpoints;
+import com.eleks.academy.pharmagator.dataproviders.CrawlItem;
+import com.eleks.academy.pharmagator.dataproviders.Pagination;
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import com.eleks.academy.pharmagator.entities.CrawlCheckpoint;
+import com.eleks.academy.pharmagator.repositories.CrawlCheckpointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PriceBatchWriterCheckpointsIT {
+
+    private static final String PHARMACY = "apteka-ds";
+
+    private static final int PAGE_SIZE = 10;
+
+    private static final long LAST_PAGE = 9;
+
+    private static final long FAILING_PAGE = 6;
+
+    private static EmbeddedPostgres postgres;
+
+    private final List<Long> savedPages = new CopyOnWriteArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+
+    private PriceBatchWriter priceBatchWriter;
+
+    private CrawlCheckpoints crawlCheckpoints;
+
+    @BeforeAll
+    public static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration", "classpath:db/postgresql")
+                .load()
+                .migrate();
+    }
+
+    @AfterAll
+    public static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        IngestionExecutors ingestionExecutors = new IngestionExecutors(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ingestionExecutors, "writerThreads", 2);
+        ReflectionTestUtils.setField(ingestionExecutors, "writerQueueCapacity", 2);
+        priceBatchWriter = new PriceBatchWriter(jdbcTemplate, new IdResolver(jdbcTemplate, Optional.empty()),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), ingestionExecutors);
+        ReflectionTestUtils.setField(priceBatchWriter, "batchSize", 15);
+        ReflectionTestUtils.setField(priceBatchWriter, "writerConcurrency", 2);
+
+        CrawlCheckpointRepository crawlCheckpointRepository = mock(CrawlCheckpointRepository.class);
+        when(crawlCheckpointRepository.findAllByProvider(anyString())).thenReturn(List.of());
+        when(crawlCheckpointRepository.save(any())).thenAnswer(invocation -> {
+            CrawlCheckpoint checkpoint = invocation.getArgument(0);
+            savedPages.add(checkpoint.getCompletedPage());
+            return checkpoint;
+        });
+        crawlCheckpoints = new CrawlCheckpoints(crawlCheckpointRepository);
+        ReflectionTestUtils.setField(crawlCheckpoints, "checkpointStaleness", Duration.ofHours(6));
+    }
+
+    @Test
+    public void write_writerFailsMidCrawl_checkpointedPagesAreStored() {
+        Flux<CrawlItem> crawl = crawlCheckpoints.resume(PHARMACY)
+                .crawl("category", 0L, new Pagination(2, false), (page, lastPage) -> {
+                    lastPage.accept(LAST_PAGE);
+                    return Flux.fromIterable(page(page));
+                });
+
+        assertThrows(RuntimeException.class, () -> priceBatchWriter.write(crawl).block());
+
+        assertFalse(savedPages.isEmpty());
+        long checkpointed = savedPages.get(savedPages.size() - 1);
+        assertTrue(checkpointed < FAILING_PAGE);
+        Set<String> stored = new HashSet<>(jdbcTemplate.queryForList("SELECT external_id FROM prices", String.class));
+        LongStream.rangeClosed(0, checkpointed)
+                .forEach(page -> page(page).forEach(dto -> assertTrue(stored.contains(dto.getExternalId()),
+                        "page " + page + " is checkpointed but " + dto.getExternalId() + " is missing")));
+    }
+
+    private static List<MedicineDto> page(long page) {
+        return IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> MedicineDto.builder()
+                        .title("Medicine " + page + "-" + i)
+                        .price(page == FAILING_PAGE && i == PAGE_SIZE - 1 ? new BigDecimal("1E+9") : new BigDecimal("9.99"))
+                        .externalId(page + "-" + i)
+                        .pharmacyName(PHARMACY)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+}
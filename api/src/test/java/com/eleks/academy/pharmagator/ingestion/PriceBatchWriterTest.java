@@ -0,0 +1,133 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import com.eleks.academy.pharmagator.dataproviders.CrawlItem;
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PriceBatchWriterTest {
+
+    private static final int PRICE_COLUMNS = 4;
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+
+    private PriceBatchWriter priceBatchWriter;
+
+    @BeforeEach
+    public void setUp() {
+        IdResolver idResolver = mock(IdResolver.class);
+        Map<String, Long> ids = new ConcurrentHashMap<>();
+        AtomicLong sequence = new AtomicLong();
+        Function<Set<String>, Map<String, Long>> resolve = keys -> keys.stream()
+                .collect(Collectors.toMap(key -> key, key -> ids.computeIfAbsent(key, k -> sequence.incrementAndGet())));
+        when(idResolver.resolvePharmacyIds(anySet())).thenAnswer(invocation -> resolve.apply(invocation.getArgument(0)));
+        when(idResolver.resolveMedicineIds(anyMap())).thenAnswer(invocation ->
+                resolve.apply(invocation.<Map<String, Set<Sku>>>getArgument(0).keySet()));
+
+        IngestionExecutors ingestionExecutors = new IngestionExecutors(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(ingestionExecutors, "writerThreads", 2);
+        ReflectionTestUtils.setField(ingestionExecutors, "writerQueueCapacity", 2);
+
+        priceBatchWriter = new PriceBatchWriter(jdbcTemplate, idResolver,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), ingestionExecutors);
+        ReflectionTestUtils.setField(priceBatchWriter, "batchSize", 3);
+        ReflectionTestUtils.setField(priceBatchWriter, "writerConcurrency", 2);
+    }
+
+    @Test
+    public void write_stream_splitsChunksAtBatchSize() {
+        long written = priceBatchWriter.write(medicines(7).map(CrawlItem::medicine));
+
+        assertEquals(7, written);
+        assertEquals(List.of(3, 3, 1), jdbcTemplate.rowsPerStatement());
+    }
+
+    @Test
+    public void write_flux_splitsChunksAtBatchSize() {
+        Long written = priceBatchWriter.write(Flux.fromStream(medicines(7)).map(CrawlItem::medicine)).block();
+
+        assertEquals(7, written);
+        assertEquals(List.of(1, 3, 3), jdbcTemplate.rowsPerStatement().stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void writeChunk_overBindParameterLimit_splitsStatements() {
+        int rows = Short.MAX_VALUE / PRICE_COLUMNS + 1;
+
+        int written = priceBatchWriter.writeChunk(medicines(rows).collect(Collectors.toList()));
+
+        assertEquals(rows, written);
+        assertEquals(List.of(rows - 1, 1), jdbcTemplate.rowsPerStatement());
+    }
+
+    @Test
+    public void writeChunk_duplicatePrice_lastWins() {
+        int written = priceBatchWriter.writeChunk(List.of(
+                medicine("Vitamin C", "10.00", "1"),
+                medicine("Vitamin B", "20.00", "2"),
+                medicine("Vitamin C", "11.00", "1")));
+
+        assertEquals(2, written);
+        assertEquals(List.of(2), jdbcTemplate.rowsPerStatement());
+        Object[] args = jdbcTemplate.statements.get(0);
+        assertEquals(new BigDecimal("11.00"), args[2]);
+        assertEquals(new BigDecimal("20.00"), args[6]);
+    }
+
+    private static Stream<MedicineDto> medicines(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> medicine("Medicine " + i, i + ".99", String.valueOf(i)));
+    }
+
+    private static MedicineDto medicine(String title, String price, String externalId) {
+        return MedicineDto.builder()
+                .title(title)
+                .price(new BigDecimal(price))
+                .externalId(externalId)
+                .pharmacyName("apteka-ds")
+                .build();
+    }
+
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<Object[]> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public int update(String sql, Object... args) {
+            statements.add(args);
+            return args.length / PRICE_COLUMNS;
+        }
+
+        List<Integer> rowsPerStatement() {
+            return statements.stream()
+                    .map(args -> args.length / PRICE_COLUMNS)
+                    .collect(Collectors.toList());
+        }
+
+    }
+
+}
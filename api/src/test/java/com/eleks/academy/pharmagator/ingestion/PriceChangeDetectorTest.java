@@ -0,0 +1,91 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PriceChangeDetectorTest {
+
+    private PriceChangeDetector priceChangeDetector;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row("apteka-ds", "1", "10.50"));
+            handler.processRow(row("apteka-ds", "2", "20.00"));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        priceChangeDetector = new PriceChangeDetector(jdbcTemplate);
+        priceChangeDetector.load();
+    }
+
+    @Test
+    public void isChanged_samePrice_unchanged() {
+        assertFalse(priceChangeDetector.isChanged(medicine("1", "10.50", "Vitamin C")));
+        assertEquals(1, priceChangeDetector.getUnchanged());
+        assertEquals(0, priceChangeDetector.getChanged());
+    }
+
+    @Test
+    public void isChanged_differentScale_unchanged() {
+        assertFalse(priceChangeDetector.isChanged(medicine("1", "10.5", "Vitamin C")));
+    }
+
+    @Test
+    public void isChanged_matchedTitle_unchanged() {
+        assertFalse(priceChangeDetector.isChanged(medicine("1", "10.50", "VITAMIN C tab.")));
+    }
+
+    @Test
+    public void isChanged_newPrice_changed() {
+        assertTrue(priceChangeDetector.isChanged(medicine("1", "10.51", "Vitamin C")));
+        assertFalse(priceChangeDetector.isChanged(medicine("1", "10.51", "Vitamin C")));
+        assertEquals(1, priceChangeDetector.getChanged());
+    }
+
+    @Test
+    public void isChanged_newExternalId_changed() {
+        assertTrue(priceChangeDetector.isChanged(medicine("3", "10.50", "Vitamin C")));
+    }
+
+    @Test
+    public void isChanged_nullPrice_changed() {
+        assertTrue(priceChangeDetector.isChanged(medicine("1", null, "Vitamin C")));
+        assertEquals(0, priceChangeDetector.getChanged());
+    }
+
+    private static ResultSet row(String pharmacyName, String externalId, String price) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString(1)).thenReturn(pharmacyName);
+        when(resultSet.getString(2)).thenReturn(externalId);
+        when(resultSet.getBigDecimal(3)).thenReturn(new BigDecimal(price));
+        return resultSet;
+    }
+
+    private static MedicineDto medicine(String externalId, String price, String title) {
+        return MedicineDto.builder()
+                .title(title)
+                .price(price == null ? null : new BigDecimal(price))
+                .externalId(externalId)
+                .pharmacyName("apteka-ds")
+                .build();
+    }
+
+}
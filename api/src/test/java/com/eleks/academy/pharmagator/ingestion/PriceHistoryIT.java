@@ -0,0 +1,179 @@
+package com.eleks.academy.pharmagator.ingestion;
+
+import com.eleks.academy.pharmagator.dataproviders.CrawlItem;
+import com.eleks.academy.pharmagator.dataproviders.dto.MedicineDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceHistoryIT {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private PriceBatchWriter priceBatchWriter;
+
+    private CopyBulkLoader copyBulkLoader;
+
+    private PriceHistoryPartitions priceHistoryPartitions;
+
+    @BeforeAll
+    public static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration", "classpath:db/postgresql")
+                .load()
+                .migrate();
+    }
+
+    @AfterAll
+    public static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        priceBatchWriter = new PriceBatchWriter(jdbcTemplate, new IdResolver(jdbcTemplate, Optional.empty()),
+                transactionTemplate, new IngestionExecutors(new SimpleMeterRegistry()));
+        copyBulkLoader = new CopyBulkLoader(jdbcTemplate, transactionTemplate);
+        priceHistoryPartitions = new PriceHistoryPartitions(jdbcTemplate);
+        ReflectionTestUtils.setField(priceHistoryPartitions, "retention", Duration.ofDays(365));
+        ReflectionTestUtils.setField(priceHistoryPartitions, "precreatedMonths", 3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "price_history", "prices", "pharmacies", "medicines");
+    }
+
+    @Test
+    public void writeChunk_recordsOnlyChangedPrices() {
+        priceBatchWriter.writeChunk(List.of(
+                medicine("Vitamin C", "10.50", "apteka-ds"),
+                medicine("Vitamin B", "20.00", "apteka-ds")));
+        priceBatchWriter.writeChunk(List.of(
+                medicine("Vitamin C", "10.5", "apteka-ds"),
+                medicine("Vitamin B", "21.00", "apteka-ds")));
+        copyBulkLoader.load(Stream.of(
+                medicine("Vitamin C", "10.50", "apteka-ds"),
+                medicine("Vitamin B", "22.00", "apteka-ds"))
+                .map(CrawlItem::medicine));
+
+        assertEquals(List.of(new BigDecimal("20.00"), new BigDecimal("21.00"), new BigDecimal("22.00")),
+                jdbcTemplate.queryForList("""
+                        SELECT h.price FROM price_history h
+                        JOIN medicines m ON m.id = h.medicine_id
+                        WHERE m.title = 'Vitamin B'
+                        ORDER BY h.price
+                        """, BigDecimal.class));
+        assertEquals(4, JdbcTestUtils.countRowsInTable(jdbcTemplate, "price_history"));
+    }
+
+    @Test
+    public void maintain_createsUpcomingAndDropsExpiredPartitions() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        jdbcTemplate.queryForObject("SELECT create_price_history_partition(?)", String.class, today.minusYears(2));
+
+        priceHistoryPartitions.maintain();
+
+        List<String> partitions = partitions();
+        assertFalse(partitions.contains(partition(today.minusYears(2))));
+        assertTrue(partitions.contains(partition(today)));
+        assertTrue(partitions.contains(partition(today.plusMonths(3))));
+    }
+
+    @Test
+    public void createPartition_movesRowsFromDefaultPartition() {
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).plusMonths(6).withDayOfMonth(1);
+        jdbcTemplate.update("INSERT INTO price_history (medicine_id, pharmacy_id, price, recorded_at) VALUES (1, 1, 10, ?)",
+                month.atStartOfDay().atOffset(ZoneOffset.UTC));
+        jdbcTemplate.update("INSERT INTO price_history (medicine_id, pharmacy_id, price, recorded_at) VALUES (1, 1, 11, ?)",
+                month.atStartOfDay().atOffset(ZoneOffset.UTC).minusSeconds(1));
+
+        jdbcTemplate.queryForObject("SELECT create_price_history_partition(?)", String.class, month);
+
+        assertEquals(1, JdbcTestUtils.countRowsInTable(jdbcTemplate, partition(month)));
+        assertEquals(1, JdbcTestUtils.countRowsInTable(jdbcTemplate, "price_history_default"));
+        assertEquals(2, JdbcTestUtils.countRowsInTable(jdbcTemplate, "price_history"));
+    }
+
+    @Test
+    public void maintain_deletesExpiredRowsFromDefaultPartition() {
+        jdbcTemplate.update("INSERT INTO price_history (medicine_id, pharmacy_id, price, recorded_at) VALUES (1, 1, 10, ?)",
+                OffsetDateTime.now(ZoneOffset.UTC).minusYears(3));
+
+        priceHistoryPartitions.maintain();
+
+        assertEquals(0, JdbcTestUtils.countRowsInTable(jdbcTemplate, "price_history_default"));
+    }
+
+    @Test
+    public void historyQuery_prunesPartitions() {
+        priceHistoryPartitions.maintain();
+        OffsetDateTime start = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("""
+                EXPLAIN SELECT * FROM price_history
+                WHERE medicine_id = 1 AND recorded_at >= ? AND recorded_at < ?
+                """, String.class, start, start.plusDays(7)));
+
+        assertTrue(plan.contains(partition(start.toLocalDate())), plan);
+        assertFalse(plan.contains(partition(start.toLocalDate().plusMonths(1))), plan);
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'price_history'
+                """, String.class);
+    }
+
+    private static String partition(LocalDate month) {
+        return "price_history_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static MedicineDto medicine(String title, String price, String pharmacyName) {
+        return MedicineDto.builder()
+                .title(title)
+                .price(new BigDecimal(price))
+                .externalId(title)
+                .pharmacyName(pharmacyName)
+                .build();
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.eleks.academy.pharmagator.replay;
+
+import com.eleks.academy.pharmagator.dataproviders.PharmacyLiki24DataProvider;
+import com.eleks.academy.pharmagator.dataproviders.dto.liki24.Liki24MedicineDto;
+import com.eleks.academy.pharmagator.dataproviders.dto.liki24.Liki24MedicinesResponse;
+import com.eleks.academy.pharmagator.ingestion.IdResolver;
+import com.eleks.academy.pharmagator.ingestion.PriceBatchWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReplayIngestionIT {
+
+    private static final String LIKI24_PATH = "/vnext/api/catalogue/8000001/products";
+
+    private static final int PAGES = 20;
+
+    private static final int PAGE_SIZE = 500;
+
+    private static EmbeddedPostgres postgres;
+
+    private static ReplayServer replayServer;
+
+    @Autowired
+    private RecordingStore recordingStore;
+
+    @Autowired
+    private PharmacyLiki24DataProvider liki24DataProvider;
+
+    @Autowired
+    private PriceBatchWriter priceBatchWriter;
+
+    @Autowired
+    private IdResolver idResolver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        Path directory = Files.createTempDirectory("recordings");
+        replayServer = new ReplayServer(recordingStore(directory), 0, Duration.ofMillis(2), 0.1,
+                HttpStatus.SERVICE_UNAVAILABLE.value(), new Random(42));
+        replayServer.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("pharmagator.replay.directory", directory::toString);
+        registry.add("pharmagator.data-providers.apteka-liki24.url", () -> baseUrl() + "/apteka-liki24" + LIKI24_PATH);
+        registry.add("pharmagator.data-providers.apteka-liki24.http-client.retry.max-attempts", () -> 8);
+        registry.add("pharmagator.data-providers.apteka-liki24.http-client.retry.min-backoff", () -> "1ms");
+        registry.add("pharmagator.data-providers.apteka-liki24.http-client.retry.max-backoff", () -> "10ms");
+    }
+
+    @AfterAll
+    public static void stopServers() throws IOException {
+        replayServer.stop();
+        postgres.close();
+    }
+
+    @Test
+    public void loadFlux_replayedPages_allPricesStored() throws JsonProcessingException {
+        for (int page = 1; page <= PAGES; page++) {
+            recordingStore.save("apteka-liki24", Recording.builder()
+                    .method("GET")
+                    .uri(LIKI24_PATH + "?page=" + page)
+                    .requestBody("")
+                    .status(200)
+                    .contentType("application/json")
+                    .body(objectMapper.writeValueAsString(page(page)))
+                    .build());
+        }
+        idResolver.warmUp();
+
+        long start = System.nanoTime();
+        Long stored = priceBatchWriter.write(liki24DataProvider.loadFlux()).block();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("Replayed {} Liki24 prices in {} s ({} items/s)", stored, seconds, (long) (stored / seconds));
+        assertEquals(PAGES * PAGE_SIZE, stored);
+        assertEquals(PAGES * PAGE_SIZE, jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM prices p JOIN pharmacies ph ON ph.id = p.pharmacy_id
+                WHERE ph.name = 'apteka-liki24'
+                """, Long.class));
+    }
+
+    @Test
+    public void record_thenReplay_sameBody() {
+        String body = "{\"totalPages\":1,\"items\":[]}";
+        recordingStore.save("apteka-liki24", Recording.builder()
+                .method("GET").uri(LIKI24_PATH + "?page=100").requestBody("")
+                .status(200).contentType("application/json").body(body)
+                .build());
+        WebClient recordingClient = WebClient.builder()
+                .clientConnector(new RecordingClientHttpConnector(new ReactorClientHttpConnector(), "recorded", recordingStore))
+                .baseUrl(baseUrl())
+                .build();
+
+        String recorded = recordingClient.get().uri("/apteka-liki24" + LIKI24_PATH + "?page=100")
+                .retrieve().bodyToMono(String.class)
+                .retryWhen(Retry.max(10))
+                .block();
+        String replayed = WebClient.create(baseUrl())
+                .get().uri("/recorded/apteka-liki24" + LIKI24_PATH + "?page=100")
+                .retrieve().bodyToMono(String.class)
+                .retryWhen(Retry.max(10))
+                .block();
+
+        assertEquals(body, recorded);
+        assertEquals(body, replayed);
+    }
+
+    @Test
+    public void record_serverError_notSaved() {
+        ReplayServer failingServer = new ReplayServer(recordingStore, 0, Duration.ZERO, 1.0,
+                HttpStatus.SERVICE_UNAVAILABLE.value(), new Random(42));
+        failingServer.start();
+        try {
+            WebClient recordingClient = WebClient.builder()
+                    .clientConnector(new RecordingClientHttpConnector(new ReactorClientHttpConnector(), "failing", recordingStore))
+                    .baseUrl("http://localhost:" + failingServer.getPort())
+                    .build();
+
+            assertThrows(WebClientResponseException.ServiceUnavailable.class, () -> recordingClient.get()
+                    .uri("/apteka-liki24" + LIKI24_PATH + "?page=101")
+                    .retrieve().bodyToMono(String.class)
+                    .block());
+        } finally {
+            failingServer.stop();
+        }
+
+        assertTrue(recordingStore.find("failing", "GET", "/apteka-liki24" + LIKI24_PATH + "?page=101", "").isEmpty());
+    }
+
+    private static String baseUrl() {
+        return "http://localhost:" + replayServer.getPort();
+    }
+
+    private static RecordingStore recordingStore(Path directory) {
+        RecordingStore recordingStore = new RecordingStore(new ObjectMapper());
+        ReflectionTestUtils.setField(recordingStore, "directory", directory);
+        return recordingStore;
+    }
+
+    private Liki24MedicinesResponse page(int page) {
+        List<Liki24MedicineDto> items = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> Liki24MedicineDto.builder()
+                        .productId(page + "-" + i)
+                        .name("Replayed medicine " + page + "-" + i)
+                        .price(BigDecimal.valueOf(page * 1000L + i, 2))
+                        .build())
+                .collect(Collectors.toList());
+        return new Liki24MedicinesResponse((long) PAGES, items);
+    }
+
+}
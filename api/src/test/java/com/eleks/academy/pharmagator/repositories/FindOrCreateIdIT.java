@@ -0,0 +1,73 @@
+package com.eleks.academy.pharmagator.repositories;
+
+import com.eleks.academy.pharmagator.ingestion.IdResolver;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.jdbc.JdbcTestUtils;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class FindOrCreateIdIT {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private PharmacyRepository pharmacyRepository;
+
+    @Autowired
+    private IdResolver idResolver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+    }
+
+    @AfterAll
+    public static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "prices", "pharmacies", "medicines");
+        idResolver.warmUp();
+    }
+
+    @Test
+    public void findOrCreateIdByTitle_sameTitle_sameId() {
+        Long created = medicineRepository.findOrCreateIdByTitle("Aspirin");
+
+        assertEquals(created, medicineRepository.findOrCreateIdByTitle("Aspirin"));
+        assertEquals(created, idResolver.resolveMedicineIds(Set.of("Aspirin")).get("Aspirin"));
+        assertEquals(1, JdbcTestUtils.countRowsInTable(jdbcTemplate, "medicines"));
+    }
+
+    @Test
+    public void findOrCreateIdByName_createdByIdResolver_sameId() {
+        Long resolved = idResolver.resolvePharmacyIds(Set.of("Pharmacy")).get("Pharmacy");
+
+        assertEquals(resolved, pharmacyRepository.findOrCreateIdByName("Pharmacy"));
+        assertEquals(1, JdbcTestUtils.countRowsInTable(jdbcTemplate, "pharmacies"));
+    }
+
+}
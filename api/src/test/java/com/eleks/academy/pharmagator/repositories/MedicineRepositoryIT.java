@@ -0,0 +1,69 @@
+package com.eleks.academy.pharmagator.repositories;
+
+import com.eleks.academy.pharmagator.entities.Medicine;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.jdbc.JdbcTestUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class MedicineRepositoryIT {
+
+    private static final int MEDICINES_COUNT = 10_000;
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @Autowired
+    public void setStatistics(final EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "medicines");
+    }
+
+    @Test
+    public void saveAll_insertsInBatches() {
+        List<Medicine> medicines = IntStream.range(0, MEDICINES_COUNT)
+                .mapToObj(i -> Medicine.builder().title("MedicineRepositoryIT_name" + i).build())
+                .collect(Collectors.toList());
+
+        medicineRepository.saveAll(medicines);
+
+        assertEquals(MEDICINES_COUNT, statistics.getEntityInsertCount());
+        assertEquals(MEDICINES_COUNT, JdbcTestUtils.countRowsInTable(jdbcTemplate, "medicines"));
+        long maxStatements = 2L * MEDICINES_COUNT / BATCH_SIZE + 2;
+        assertTrue(statistics.getPrepareStatementCount() <= maxStatements,
+                "Expected at most " + maxStatements + " statements, but was " + statistics.getPrepareStatementCount());
+    }
+
+}